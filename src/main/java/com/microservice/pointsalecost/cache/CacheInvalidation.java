@@ -0,0 +1,27 @@
+package com.microservice.pointsalecost.cache;
+
+import com.microservice.pointsalecost.models.Cost;
+
+/**
+ * Message published on the invalidation channel. {@link Change#EVICT} follows a write to one of the Redis hashes,
+ * a null {@code field} drops every entry of the hash. The other changes carry a write to the cost network that
+ * every instance applies to its in-memory graph and active points, see {@link NetworkSync}.
+ * <p>
+ * {@code costs} holds the added costs, {@code pointIds} the points activated or deactivated, or for removed costs
+ * the two point ids of each cost one after the other.
+ */
+public record CacheInvalidation(String instanceId, Change change, String hash, String field,
+                                Cost[] costs, long[] pointIds, long publishedAt) {
+
+    public CacheInvalidation(String instanceId, String hash, String field, long publishedAt) {
+        this(instanceId, Change.EVICT, hash, field, null, null, publishedAt);
+    }
+
+    public enum Change {
+        EVICT,
+        COSTS_ADDED,
+        COSTS_REMOVED,
+        POINTS_ACTIVATED,
+        POINTS_DEACTIVATED
+    }
+}
@@ -0,0 +1,220 @@
+package com.microservice.pointsalecost.cache;
+
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.CostID;
+import com.microservice.pointsalecost.models.PointOfSale;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Redis value serializer with a fixed binary layout for {@link PointOfSale} and {@link Cost}, the values stored in
+ * the cache hashes. Binary values start with a format version byte that JSON can never start with, so values are
+ * always read in either format and the written format can be switched per instance while both coexist in Redis.
+ * Any other type is written as JSON.
+ * <p>
+ * Layout (version 1): version, type, presence flags, then the present fields. Ids are unsigned varints,
+ * names are a varint length followed by UTF-8 and amounts are 8 byte IEEE 754 doubles.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte VERSION_1 = 1;
+    private static final byte POINT_OF_SALE = 1;
+    private static final byte COST = 2;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int ACTIVE = 1 << 2;
+    private static final int HAS_ID_A = 1 << 1;
+    private static final int HAS_ID_B = 1 << 2;
+    private static final int HAS_AMOUNT = 1 << 3;
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final boolean writeCompact;
+
+    public CompactRedisSerializer(boolean writeCompact) {
+        this.writeCompact = writeCompact;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (writeCompact && value instanceof PointOfSale pointOfSale) {
+            return writePointOfSale(pointOfSale);
+        }
+        if (writeCompact && value instanceof Cost cost) {
+            return writeCost(cost);
+        }
+        return json.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != VERSION_1) {
+            return json.deserialize(bytes);
+        }
+        Reader reader = new Reader(bytes, 1);
+        return switch (reader.readByte()) {
+            case POINT_OF_SALE -> readPointOfSale(reader);
+            case COST -> readCost(reader);
+            default -> throw new SerializationException("Unknown compact value type " + bytes[1]);
+        };
+    }
+
+    private static byte[] writePointOfSale(PointOfSale pointOfSale) {
+        byte[] name = pointOfSale.getName() == null ? null : pointOfSale.getName().getBytes(StandardCharsets.UTF_8);
+        int flags = (pointOfSale.getId() != null ? HAS_ID : 0) | (name != null ? HAS_NAME : 0) | (pointOfSale.isActive() ? ACTIVE : 0);
+        Writer writer = new Writer(3 + 10 + 5 + (name == null ? 0 : name.length));
+        writer.writeByte(VERSION_1);
+        writer.writeByte(POINT_OF_SALE);
+        writer.writeByte(flags);
+        if (pointOfSale.getId() != null) {
+            writer.writeVarLong(pointOfSale.getId());
+        }
+        if (name != null) {
+            writer.writeVarLong(name.length);
+            writer.writeBytes(name);
+        }
+        return writer.toByteArray();
+    }
+
+    private static PointOfSale readPointOfSale(Reader reader) {
+        int flags = reader.readByte();
+        PointOfSale pointOfSale = new PointOfSale();
+        if ((flags & HAS_ID) != 0) {
+            pointOfSale.setId(reader.readVarLong());
+        }
+        if ((flags & HAS_NAME) != 0) {
+            pointOfSale.setName(reader.readString((int) reader.readVarLong()));
+        }
+        pointOfSale.setActive((flags & ACTIVE) != 0);
+        return pointOfSale;
+    }
+
+    private static byte[] writeCost(Cost cost) {
+        CostID id = cost.getId();
+        int flags = (id != null ? HAS_ID : 0)
+                | (id != null && id.getIdA() != null ? HAS_ID_A : 0)
+                | (id != null && id.getIdB() != null ? HAS_ID_B : 0)
+                | (cost.getAmount() != null ? HAS_AMOUNT : 0);
+        Writer writer = new Writer(3 + 10 + 10 + 8);
+        writer.writeByte(VERSION_1);
+        writer.writeByte(COST);
+        writer.writeByte(flags);
+        if ((flags & HAS_ID_A) != 0) {
+            writer.writeVarLong(id.getIdA());
+        }
+        if ((flags & HAS_ID_B) != 0) {
+            writer.writeVarLong(id.getIdB());
+        }
+        if ((flags & HAS_AMOUNT) != 0) {
+            writer.writeLong(Double.doubleToLongBits(cost.getAmount()));
+        }
+        return writer.toByteArray();
+    }
+
+    private static Cost readCost(Reader reader) {
+        int flags = reader.readByte();
+        Cost cost = new Cost();
+        if ((flags & HAS_ID) != 0) {
+            Long idA = (flags & HAS_ID_A) != 0 ? reader.readVarLong() : null;
+            Long idB = (flags & HAS_ID_B) != 0 ? reader.readVarLong() : null;
+            cost.setId(new CostID(idA, idB));
+        }
+        if ((flags & HAS_AMOUNT) != 0) {
+            cost.setAmount(Double.longBitsToDouble(reader.readLong()));
+        }
+        return cost;
+    }
+
+    private static final class Writer {
+        private final byte[] buffer;
+        private int position;
+
+        Writer(int maxSize) {
+            this.buffer = new byte[maxSize];
+        }
+
+        void writeByte(int value) {
+            buffer[position++] = (byte) value;
+        }
+
+        // Unsigned LEB128, negative ids take the full 10 bytes.
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readByte() {
+            check(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int next = readByte();
+                value |= (long) (next & 0x7F) << shift;
+                if ((next & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in compact value");
+        }
+
+        long readLong() {
+            check(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        String readString(int length) {
+            check(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private void check(int length) {
+            if (position + length > buffer.length) {
+                throw new SerializationException("Truncated compact value");
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.microservice.pointsalecost.cache;
+
+import com.microservice.pointsalecost.enums.CacheType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Brings one logical Redis hash up to date with the table it caches, fed with the pages of a full table read.
+ * Redis survives restarts, so only the rows modified after the stored high-water mark (minus an overlap for
+ * clock skew between instances) are written. Rows deleted while no instance was running are found by scanning the
+ * hash with HSCAN against the ids read, always: comparing the hash length with the row count misses a delete
+ * balanced by an insert. Removing a field that another instance has just
+ * written only costs a cache miss.
+ * <p>
+ * Everything is rewritten when there is no mark yet or the hash is empty. The mark is stored last, so an
+ * interrupted sync is simply repeated.
+ */
+public class HashSync<T> {
+
+    static final String MARK_PREFIX = "cache:high-water:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final HashOperations<String, String, Object> hashOperations;
+    private final RedisKeyLayout layout;
+    private final CacheType type;
+    private final Function<T, String> field;
+    private final Function<T, Instant> lastModified;
+    private final Instant since;
+    private final boolean full;
+    private final Set<String> fields = new HashSet<>();
+    private Instant highWaterMark;
+    private long written;
+
+    public HashSync(RedisTemplate<String, Object> redisTemplate, RedisKeyLayout layout, CacheType type,
+                    Function<T, String> field, Function<T, Instant> lastModified, Duration overlap) {
+        this.redisTemplate = redisTemplate;
+        this.hashOperations = redisTemplate.opsForHash();
+        this.layout = layout;
+        this.type = type;
+        this.field = field;
+        this.lastModified = lastModified;
+        Object mark = redisTemplate.opsForValue().get(markKey(type));
+        this.highWaterMark = mark == null ? null : Instant.parse(mark.toString());
+        this.since = highWaterMark == null ? null : highWaterMark.minus(overlap);
+        this.full = since == null || size() == 0;
+    }
+
+    public static String markKey(CacheType type) {
+        return MARK_PREFIX + type.getValues();
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public long written() {
+        return written;
+    }
+
+    /** Writes the rows of the page that changed since the last sync, one HMSET per Redis key. */
+    public void accept(List<T> page) {
+        Map<String, Object> changed = new HashMap<>();
+        for (T value : page) {
+            String key = field.apply(value);
+            fields.add(key);
+            Instant modified = lastModified.apply(value);
+            if (modified != null && (highWaterMark == null || modified.isAfter(highWaterMark))) {
+                highWaterMark = modified;
+            }
+            if (full || (modified != null && modified.isAfter(since))) {
+                changed.put(key, value);
+            }
+        }
+        layout.partition(type, changed).forEach(hashOperations::putAll);
+        written += changed.size();
+    }
+
+    /** Drops the fields of deleted rows and stores the new high-water mark. Returns the number of fields dropped. */
+    public long finish() {
+        long removed = 0;
+        for (String hash : layout.hashesOf(type)) {
+            List<Object> stale = new ArrayList<>();
+            try (Cursor<Map.Entry<String, Object>> cursor = hashOperations.scan(hash, ScanOptions.scanOptions().count(1000).build())) {
+                cursor.forEachRemaining(entry -> {
+                    if (!fields.contains(entry.getKey())) {
+                        stale.add(entry.getKey());
+                    }
+                });
+            }
+            if (!stale.isEmpty()) {
+                removed += hashOperations.delete(hash, stale.toArray());
+            }
+        }
+        if (highWaterMark != null) {
+            redisTemplate.opsForValue().set(markKey(type), highWaterMark.toString());
+        }
+        return removed;
+    }
+
+    private long size() {
+        long size = 0;
+        for (String hash : layout.hashesOf(type)) {
+            size += hashOperations.size(hash);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,193 @@
+package com.microservice.pointsalecost.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.pointsalecost.enums.CacheType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-process first level in front of the Redis hashes of {@link CacheType}. Reads go to the local cache first and
+ * only misses reach Redis. Every write goes to Redis, drops the local entry and publishes a
+ * {@link CacheInvalidation} so the other instances drop theirs. Entries also expire after a TTL, which bounds how
+ * long a lost invalidation can leave a replica stale.
+ */
+@Component
+public class NearCache implements MessageListener {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final HashOperations<String, String, Object> hashOperations;
+    private final RedisKeyLayout layout;
+    private final String channel;
+    private final int batchSize;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<CacheType, Cache<String, Object>> entries = new EnumMap<>(CacheType.class);
+    // Whole-hash reads (HVALS), dropped on any write to the hash.
+    private final Cache<CacheType, List<Object>> allValues;
+    private final Timer invalidationLag;
+
+    public NearCache(RedisTemplate<String, Object> redisTemplate, RedisKeyLayout layout, MeterRegistry meterRegistry,
+                     @Value("${cost.near-cache.max-size:10000}") long maxSize,
+                     @Value("${cost.near-cache.ttl:PT1M}") Duration ttl,
+                     @Value("${cost.near-cache.channel:pointsalecost:invalidations}") String channel,
+                     @Value("${cost.cache.batch-size:1000}") int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.hashOperations = redisTemplate.opsForHash();
+        this.layout = layout;
+        this.channel = channel;
+        this.batchSize = batchSize;
+        for (CacheType type : CacheType.values()) {
+            Cache<String, Object> cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "near." + type.getValues());
+            entries.put(type, cache);
+        }
+        this.allValues = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+        this.invalidationLag = Timer.builder("cache.invalidation.lag")
+                .description("Time from a write on another instance to the local entry being dropped")
+                .register(meterRegistry);
+    }
+
+    public String channel() {
+        return channel;
+    }
+
+    /** Identifies this instance's messages on the channel, so they are not applied twice. */
+    public String instanceId() {
+        return instanceId;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(CacheType type, String field) {
+        return (T) entries.get(type).get(field, key -> hashOperations.get(layout.hashOf(type, key), key));
+    }
+
+    /** The locally held value, without going to Redis. */
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(CacheType type, String field) {
+        return (T) entries.get(type).getIfPresent(field);
+    }
+
+    /** Values in the order of {@code fields}, null where neither level has the field. One HMGET per hash for the misses. */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> multiGet(CacheType type, List<String> fields) {
+        Map<String, Object> found = entries.get(type).getAll(fields, missing -> {
+            Map<String, List<String>> byHash = new HashMap<>();
+            missing.forEach(field -> byHash.computeIfAbsent(layout.hashOf(type, field), key -> new ArrayList<>()).add(field));
+            Map<String, Object> loaded = new HashMap<>();
+            byHash.forEach((hash, keys) -> {
+                List<Object> values = hashOperations.multiGet(hash, keys);
+                for (int i = 0; i < keys.size(); i++) {
+                    if (values.get(i) != null) {
+                        loaded.put(keys.get(i), values.get(i));
+                    }
+                }
+            });
+            return loaded;
+        });
+        List<T> result = new ArrayList<>(fields.size());
+        fields.forEach(field -> result.add((T) found.get(field)));
+        return result;
+    }
+
+    /** Every value of the logical hash. Sharded hashes are read bucket by bucket in one pipeline. */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> values(CacheType type) {
+        return (List<T>) allValues.get(type, key -> {
+            List<String> hashes = layout.hashesOf(type);
+            if (hashes.size() == 1) {
+                return hashOperations.values(hashes.get(0));
+            }
+            List<Object> buckets = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    hashes.forEach(hash -> operations.opsForHash().values((K) hash));
+                    return null;
+                }
+            });
+            List<Object> merged = new ArrayList<>();
+            buckets.forEach(bucket -> merged.addAll((List<Object>) bucket));
+            return merged;
+        });
+    }
+
+    public boolean hasKey(CacheType type, String field) {
+        return entries.get(type).getIfPresent(field) != null || hashOperations.hasKey(layout.hashOf(type, field), field);
+    }
+
+    public void put(CacheType type, String field, Object value) {
+        hashOperations.put(layout.hashOf(type, field), field, value);
+        invalidate(type, field);
+    }
+
+    /** Writes the values with one HMSET per batch and Redis key, and a single invalidation for the whole hash. */
+    public <T> void putAll(CacheType type, List<T> values, Function<T, String> field) {
+        for (int from = 0; from < values.size(); from += batchSize) {
+            Map<String, Object> batch = new HashMap<>();
+            values.subList(from, Math.min(from + batchSize, values.size()))
+                    .forEach(value -> batch.put(field.apply(value), value));
+            layout.partition(type, batch).forEach(hashOperations::putAll);
+        }
+        if (!values.isEmpty()) {
+            invalidate(type, null);
+        }
+    }
+
+    public Long delete(CacheType type, String field) {
+        Long deleted = hashOperations.delete(layout.hashOf(type, field), field);
+        invalidate(type, field);
+        return deleted;
+    }
+
+    /** Drops the local entry and tells the other instances to drop theirs. */
+    public void invalidate(CacheType type, String field) {
+        evict(type, field);
+        redisTemplate.convertAndSend(channel, new CacheInvalidation(instanceId, type.getValues(), field, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!(redisTemplate.getValueSerializer().deserialize(message.getBody()) instanceof CacheInvalidation invalidation)
+                || invalidation.change() != CacheInvalidation.Change.EVICT
+                || instanceId.equals(invalidation.instanceId())) {
+            return;
+        }
+        for (CacheType type : CacheType.values()) {
+            if (type.getValues().equals(invalidation.hash())) {
+                evict(type, invalidation.field());
+            }
+        }
+        invalidationLag.record(Math.max(0, System.currentTimeMillis() - invalidation.publishedAt()), TimeUnit.MILLISECONDS);
+    }
+
+    private void evict(CacheType type, String field) {
+        if (field == null) {
+            entries.get(type).invalidateAll();
+        } else {
+            entries.get(type).invalidate(field);
+        }
+        allValues.invalidate(type);
+    }
+}
@@ -0,0 +1,64 @@
+package com.microservice.pointsalecost.cache;
+
+import com.microservice.pointsalecost.enums.CacheType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Short-lived Redis markers for entries that are missing from a hash on purpose: ids that do not exist and
+ * entities that are kept out of the hash because they are inactive. A marker answers the lookup without going to
+ * the database until it expires or a write to the entry clears it.
+ */
+@Component
+public class NegativeCache {
+
+    private static final String ABSENT = "absent";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration ttl;
+
+    public NegativeCache(RedisTemplate<String, Object> redisTemplate, @Value("${cost.negative-cache.ttl:PT30S}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    /** The marker of the entry, null when there is none. A marker with a null value means the id does not exist. */
+    @SuppressWarnings("unchecked")
+    public <T> Marker<T> get(CacheType type, String field) {
+        Object marker = redisTemplate.opsForValue().get(key(type, field));
+        if (marker == null) {
+            return null;
+        }
+        return new Marker<>(ABSENT.equals(marker) ? null : (T) marker);
+    }
+
+    public void markAbsent(CacheType type, String field) {
+        redisTemplate.opsForValue().set(key(type, field), ABSENT, ttl);
+    }
+
+    public void markInactive(CacheType type, String field, Object value) {
+        redisTemplate.opsForValue().set(key(type, field), value, ttl);
+    }
+
+    public void clear(CacheType type, String field) {
+        redisTemplate.delete(key(type, field));
+    }
+
+    /** Clears the markers of many entries with one DEL. */
+    public void clearAll(CacheType type, Collection<String> fields) {
+        if (!fields.isEmpty()) {
+            redisTemplate.delete(fields.stream().map(field -> key(type, field)).toList());
+        }
+    }
+
+    private static String key(CacheType type, String field) {
+        return type.getValues() + ":missing:" + field;
+    }
+
+    public record Marker<T>(T value) {
+    }
+}
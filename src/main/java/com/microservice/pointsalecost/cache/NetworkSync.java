@@ -0,0 +1,178 @@
+package com.microservice.pointsalecost.cache;
+
+import com.microservice.pointsalecost.cache.CacheInvalidation.Change;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.ShortestPathCache;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.CostID;
+import com.microservice.pointsalecost.models.PointOfSale;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-memory cost network of every instance in step. Once the surrounding transaction commits, cost and
+ * point writes are applied to the local {@link CostGraphEngine} and {@link ActivePointIndex}, move the
+ * {@link ShortestPathCache} to a new version, and are published on the invalidation channel so the other instances
+ * apply them as well. ComponentIndex and the contraction hierarchy follow through their listeners on the engine and
+ * the index.
+ * <p>
+ * Like the near cache invalidations the messages are not stored: an instance cut off from Redis misses the
+ * changes published meanwhile until its next warm-up.
+ */
+@Component
+public class NetworkSync implements MessageListener {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String channel;
+    private final String instanceId;
+    private final CostGraphEngine costGraphEngine;
+    private final ActivePointIndex activePointIndex;
+    private final ShortestPathCache shortestPathCache;
+    private final int batchSize;
+    private final Timer syncLag;
+
+    public NetworkSync(RedisTemplate<String, Object> redisTemplate, NearCache nearCache, CostGraphEngine costGraphEngine,
+                       ActivePointIndex activePointIndex, ShortestPathCache shortestPathCache, MeterRegistry meterRegistry,
+                       @Value("${cost.cache.batch-size:1000}") int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.channel = nearCache.channel();
+        this.instanceId = nearCache.instanceId();
+        this.costGraphEngine = costGraphEngine;
+        this.activePointIndex = activePointIndex;
+        this.shortestPathCache = shortestPathCache;
+        this.batchSize = batchSize;
+        this.syncLag = Timer.builder("network.sync.lag")
+                .description("Time from a cost or point change on another instance to the local graph applying it")
+                .register(meterRegistry);
+    }
+
+    public void addCost(Cost cost) {
+        afterCommit(() -> {
+            costGraphEngine.addCost(cost);
+            shortestPathCache.bumpVersion();
+            send(Change.COSTS_ADDED, new Cost[]{cost}, null);
+        });
+    }
+
+    /** Adds the costs with a single graph rebuild, published in messages of at most the cache batch size. */
+    public void addCosts(List<Cost> costs) {
+        if (costs.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            costGraphEngine.addCosts(costs);
+            shortestPathCache.bumpVersion();
+            for (int from = 0; from < costs.size(); from += batchSize) {
+                send(Change.COSTS_ADDED, costs.subList(from, Math.min(from + batchSize, costs.size())).toArray(Cost[]::new), null);
+            }
+        });
+    }
+
+    public void removeCost(Long idA, Long idB) {
+        afterCommit(() -> {
+            costGraphEngine.removeCost(idA, idB);
+            shortestPathCache.bumpVersion();
+            send(Change.COSTS_REMOVED, null, new long[]{idA, idB});
+        });
+    }
+
+    public void activate(Long id) {
+        afterCommit(() -> {
+            activePointIndex.activate(id);
+            shortestPathCache.bumpVersion();
+            send(Change.POINTS_ACTIVATED, null, new long[]{id});
+        });
+    }
+
+    /** Activates the points with a single index copy, published in messages of at most the cache batch size. */
+    public void activateAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            activePointIndex.activateAll(ids);
+            shortestPathCache.bumpVersion();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                send(Change.POINTS_ACTIVATED, null,
+                        ids.subList(from, Math.min(from + batchSize, ids.size())).stream().mapToLong(Long::longValue).toArray());
+            }
+        });
+    }
+
+    public void deactivate(Long id) {
+        afterCommit(() -> {
+            activePointIndex.deactivate(id);
+            shortestPathCache.bumpVersion();
+            send(Change.POINTS_DEACTIVATED, null, new long[]{id});
+        });
+    }
+
+    /** After any other change to the point, such as a rename: cached paths embed the point names. */
+    public void update(PointOfSale pointOfSale) {
+        if (pointOfSale.isActive()) {
+            activate(pointOfSale.getId());
+        } else {
+            deactivate(pointOfSale.getId());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!(redisTemplate.getValueSerializer().deserialize(message.getBody()) instanceof CacheInvalidation change)
+                || change.change() == Change.EVICT
+                || instanceId.equals(change.instanceId())) {
+            return;
+        }
+        switch (change.change()) {
+            case COSTS_ADDED -> costGraphEngine.addCosts(Arrays.asList(change.costs()));
+            case COSTS_REMOVED -> {
+                long[] ids = change.pointIds();
+                List<CostID> pairs = new ArrayList<>(ids.length / 2);
+                for (int i = 0; i + 1 < ids.length; i += 2) {
+                    pairs.add(new CostID(ids[i], ids[i + 1]));
+                }
+                costGraphEngine.removeCosts(pairs);
+            }
+            case POINTS_ACTIVATED -> activePointIndex.activateAll(Arrays.stream(change.pointIds()).boxed().toList());
+            case POINTS_DEACTIVATED -> activePointIndex.deactivateAll(Arrays.stream(change.pointIds()).boxed().toList());
+            default -> {
+                return;
+            }
+        }
+        shortestPathCache.bumpVersion();
+        syncLag.record(Math.max(0, System.currentTimeMillis() - change.publishedAt()), TimeUnit.MILLISECONDS);
+    }
+
+    // A write rolled back must leave no trace, neither here nor on the other instances: inside a transaction the
+    // local change and its message both wait for the commit. Outside of one they are applied right away.
+    private void afterCommit(Runnable write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write.run();
+                }
+            });
+        } else {
+            write.run();
+        }
+    }
+
+    private void send(Change change, Cost[] costs, long[] pointIds) {
+        redisTemplate.convertAndSend(channel, new CacheInvalidation(instanceId, change, null, null, costs, pointIds,
+                System.currentTimeMillis()));
+    }
+}
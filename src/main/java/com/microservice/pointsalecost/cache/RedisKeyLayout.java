@@ -0,0 +1,58 @@
+package com.microservice.pointsalecost.cache;
+
+import com.microservice.pointsalecost.enums.CacheType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the logical hashes of {@link CacheType} to Redis keys. The cost hash is split into
+ * {@code cost:{0}..cost:{n-1}} by the hash of the pair key: every bucket stays small enough to be read without
+ * blocking Redis, and the hash tag lets a cluster place each bucket on its own slot. Points of sale keep a single
+ * hash. With zero buckets the cost hash keeps the single {@code cost} key as well.
+ */
+@Component
+public class RedisKeyLayout {
+
+    private final int costBuckets;
+
+    public RedisKeyLayout(@Value("${cost.cache.cost-buckets:64}") int costBuckets) {
+        this.costBuckets = costBuckets;
+    }
+
+    public boolean isSharded(CacheType type) {
+        return type == CacheType.COST && costBuckets > 0;
+    }
+
+    /** Redis key of the hash holding {@code field}. */
+    public String hashOf(CacheType type, String field) {
+        return isSharded(type) ? bucketKey(type, Math.floorMod(field.hashCode(), costBuckets)) : type.getValues();
+    }
+
+    /** Every Redis key of the logical hash. */
+    public List<String> hashesOf(CacheType type) {
+        if (!isSharded(type)) {
+            return List.of(type.getValues());
+        }
+        List<String> keys = new ArrayList<>(costBuckets);
+        for (int bucket = 0; bucket < costBuckets; bucket++) {
+            keys.add(bucketKey(type, bucket));
+        }
+        return keys;
+    }
+
+    /** Splits fields by the Redis key they belong to. */
+    public <T> Map<String, Map<String, T>> partition(CacheType type, Map<String, T> fields) {
+        Map<String, Map<String, T>> byHash = new HashMap<>();
+        fields.forEach((field, value) -> byHash.computeIfAbsent(hashOf(type, field), key -> new HashMap<>()).put(field, value));
+        return byHash;
+    }
+
+    private static String bucketKey(CacheType type, int bucket) {
+        return type.getValues() + ":{" + bucket + "}";
+    }
+}
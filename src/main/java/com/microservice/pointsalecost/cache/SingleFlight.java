@@ -0,0 +1,107 @@
+package com.microservice.pointsalecost.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent cache refills: per key, one caller runs the loader and every concurrent caller for the
+ * same key waits for its result (or its exception). With the Redis lock enabled, the loading caller first takes a
+ * short-lived {@code SET NX PX} lock so only one instance reaches the database; the others poll the shared cache
+ * until it is filled, the lock is released or the lock expires, and only then load on their own.
+ */
+@Component
+public class SingleFlight {
+
+    private static final String LOCK_PREFIX = "lock:";
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean redisLock;
+    private final Duration lockTtl;
+    private final Duration pollInterval;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(RedisTemplate<String, Object> redisTemplate,
+                        @Value("${cost.single-flight.redis-lock.enabled:false}") boolean redisLock,
+                        @Value("${cost.single-flight.redis-lock.ttl:PT5S}") Duration lockTtl,
+                        @Value("${cost.single-flight.redis-lock.poll-interval:PT0.05S}") Duration pollInterval) {
+        this.redisTemplate = redisTemplate;
+        this.redisLock = redisLock;
+        this.lockTtl = lockTtl;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * @param cached re-reads the shared cache, null while it has no value; used while another instance holds the lock
+     * @param loader loads the value from the source of truth and fills the cache
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> cached, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            return (T) await(running);
+        }
+        try {
+            flight.complete(redisLock ? loadWithLock(key, cached, loader) : loader.get());
+        } catch (RuntimeException exception) {
+            flight.completeExceptionally(exception);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+        return (T) await(flight);
+    }
+
+    private <T> T loadWithLock(String key, Supplier<T> cached, Supplier<T> loader) {
+        String lockKey = LOCK_PREFIX + key;
+        String owner = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + lockTtl.toNanos();
+        while (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, owner, lockTtl))) {
+            T value = cached.get();
+            if (value != null) {
+                return value;
+            }
+            if (System.nanoTime() > deadline) {
+                return loader.get(); // the holder is slow or gone, stop waiting for it
+            }
+            sleep();
+        }
+        try {
+            // The previous holder may have filled the cache between our miss and the lock.
+            T value = cached.get();
+            return value != null ? value : loader.get();
+        } finally {
+            redisTemplate.execute(RELEASE, List.of(lockKey), owner);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a cache refill", e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+}
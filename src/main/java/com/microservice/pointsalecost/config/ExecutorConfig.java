@@ -0,0 +1,46 @@
+package com.microservice.pointsalecost.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    // CPU bound path searches, sized to the cores available to the service. They stay on platform threads in
+    // virtual-thread mode too; requests running on virtual threads hand their searches to this pool.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService graphSearchExecutor(@Value("${cost.batch.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Graph preprocessing (contraction hierarchies) runs one rebuild at a time off the request threads.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService graphPreprocessingExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "graph-preprocessing");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Startup cache warm-up: points of sale and costs load side by side, off the main thread.
+    // The warm-up mostly waits on JDBC and Redis, so it gets virtual threads when the service runs on them.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cacheWarmupExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-warmup-", 1).factory());
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
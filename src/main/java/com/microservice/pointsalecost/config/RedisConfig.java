@@ -1,22 +1,58 @@
 package com.microservice.pointsalecost.config;
 
+import com.microservice.pointsalecost.cache.CompactRedisSerializer;
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.NetworkSync;
+import com.microservice.pointsalecost.enums.RedisValueFormat;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
+    // Values are read in both formats whatever is written, so the format can be switched one instance at a time.
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       @Value("${cost.redis.value-format:JSON}") RedisValueFormat valueFormat) {
+        CompactRedisSerializer valueSerializer = new CompactRedisSerializer(valueFormat == RedisValueFormat.COMPACT);
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(valueSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(valueSerializer);
         return template;
     }
-}
\ No newline at end of file
+
+    // Non-blocking twin of redisTemplate for the reactive read endpoints, same keys and value format.
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                       @Value("${cost.redis.value-format:JSON}") RedisValueFormat valueFormat) {
+        CompactRedisSerializer valueSerializer = new CompactRedisSerializer(valueFormat == RedisValueFormat.COMPACT);
+        RedisSerializationContext<String, Object> context = RedisSerializationContext.<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(valueSerializer)
+                .hashKey(new StringRedisSerializer())
+                .hashValue(valueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    // Invalidations published by other instances for the near cache, and their cost and point changes for the graph.
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory, NearCache nearCache,
+                                                                       NetworkSync networkSync) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(nearCache, new ChannelTopic(nearCache.channel()));
+        container.addMessageListener(networkSync, new ChannelTopic(nearCache.channel()));
+        return container;
+    }
+}
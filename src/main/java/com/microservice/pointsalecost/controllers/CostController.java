@@ -2,7 +2,10 @@ package com.microservice.pointsalecost.controllers;
 
 import com.microservice.pointsalecost.dtos.ApiResponseDTO;
 import com.microservice.pointsalecost.dtos.CostDTO.*;
+import com.microservice.pointsalecost.enums.DataFormat;
 import com.microservice.pointsalecost.enums.RoleEnum;
+import com.microservice.pointsalecost.enums.SearchMode;
+import com.microservice.pointsalecost.services.CostImportService;
 import com.microservice.pointsalecost.services.CostService;
 import com.microservice.pointsalecost.utils.RoleValidator;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,10 +13,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -22,9 +29,11 @@ import java.util.List;
 public class CostController {
 
     private final CostService costService;
+    private final CostImportService costImportService;
 
-    public CostController(CostService costService) {
+    public CostController(CostService costService, CostImportService costImportService) {
         this.costService = costService;
+        this.costImportService = costImportService;
     }
 
     @PostMapping("/add")
@@ -40,6 +49,21 @@ public class CostController {
         return new ResponseEntity<>(new ApiResponseDTO<>(true, "Cost Added Successfully", costResponseDTO), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import Costs", description = "Adds many costs from a CSV (idA,idB,amount, optional header) or NDJSON body. Valid rows are inserted, the others are reported by line. Only ADMIN role is allowed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File processed, rejected rows are listed in the report"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")})
+    public ResponseEntity<ApiResponseDTO<CostImportReportDTO>> importCosts(InputStream body,
+                                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                           @RequestHeader("X-User-Authorities") String roles) throws IOException {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN to import costs", RoleEnum.ADMIN);
+        CostImportReportDTO report = costImportService.importCosts(body, DataFormat.of(contentType));
+        String message = report.rejected() == 0 ? "Costs Imported Successfully" : "Costs Imported With Rejected Rows";
+        return new ResponseEntity<>(new ApiResponseDTO<>(report.rejected() == 0, message, report), HttpStatus.OK);
+    }
+
     @DeleteMapping("/delete/{idA}/{idB}")
     @Operation(summary = "Delete Cost", description = "Deletes a cost relationship between two Points of Sale by their IDs. Only ADMIN role is allowed.")
     @ApiResponses(value = {
@@ -69,18 +93,46 @@ public class CostController {
     }
 
     @GetMapping("/minimum/{idA}/{idB}")
-    @Operation(summary = "Get Minimum Cost Path", description = "Finds the path with the minimum cost between two Points of Sale. Accessible by ADMIN and CLIENT roles.")
+    @Operation(summary = "Get Minimum Cost Path", description = "Finds the path with the minimum cost between two Points of Sale. The search algorithm can be chosen with the mode parameter. Accessible by ADMIN and CLIENT roles.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Minimum cost path returned successfully"),
             @ApiResponse(responseCode = "403", description = "Access denied"),
             @ApiResponse(responseCode = "404", description = "No minimum cost path found")})
     public ResponseEntity<ApiResponseDTO<CostMinimumDTO>> getMinimumCostPath(@PathVariable Long idA, @PathVariable Long idB,
+                                                                             @RequestParam(required = false) SearchMode mode,
                                                                              @RequestHeader("X-User-Authorities") String roles) {
         RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN or CLIENT to get the minimum cost path", RoleEnum.ADMIN, RoleEnum.CLIENT);
-        CostMinimumDTO costMinimumDTO = costService.minimumCostPath(idA, idB);
+        CostMinimumDTO costMinimumDTO = costService.minimumCostPath(idA, idB, mode);
         if (costMinimumDTO == null || costMinimumDTO.pointOfSaleResponse().isEmpty()) {
             return new ResponseEntity<>(new ApiResponseDTO<>(false, "No Minimum Cost Path Found", null), HttpStatus.NOT_FOUND);
         }
         return new ResponseEntity<>(new ApiResponseDTO<>(true, "Minimum Cost Path Found", costMinimumDTO), HttpStatus.OK);
     }
+
+    @GetMapping("/minimum/from/{id}")
+    @Operation(summary = "Get Minimum Costs From One Point", description = "Returns the minimum cost and previous point from one Point of Sale to every reachable Point of Sale. Accessible by ADMIN and CLIENT roles.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Minimum costs returned successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "409", description = "Point of Sale inactive or not found")})
+    public ResponseEntity<ApiResponseDTO<CostTreeDTO>> getMinimumCostsFromPoint(@PathVariable Long id,
+                                                                               @RequestParam(defaultValue = "false") boolean compact,
+                                                                               @RequestHeader("X-User-Authorities") String roles) {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN or CLIENT to get the minimum costs from a point", RoleEnum.ADMIN, RoleEnum.CLIENT);
+        CostTreeDTO costTreeDTO = costService.minimumCostTree(id, compact);
+        return new ResponseEntity<>(new ApiResponseDTO<>(true, "Minimum Costs Found", costTreeDTO), HttpStatus.OK);
+    }
+
+    @PostMapping("/minimum/batch")
+    @Operation(summary = "Get Minimum Cost Paths in Batch", description = "Finds the minimum cost path for every origin/destination pair in one request. Accessible by ADMIN and CLIENT roles.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Minimum cost paths calculated, pairs without a path carry a message"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "400", description = "Invalid request")})
+    public ResponseEntity<ApiResponseDTO<CostBatchResultDTO>> getMinimumCostPaths(@RequestBody @Valid CostBatchRequestDTO costBatchRequestDTO,
+                                                                                  @RequestHeader("X-User-Authorities") String roles) {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN or CLIENT to get the minimum cost paths", RoleEnum.ADMIN, RoleEnum.CLIENT);
+        List<CostBatchResultDTO> results = costService.minimumCostPathBatch(costBatchRequestDTO.pairs());
+        return new ResponseEntity<>(new ApiResponseDTO<>(true, "Minimum Cost Paths Calculated", results), HttpStatus.OK);
+    }
 }
\ No newline at end of file
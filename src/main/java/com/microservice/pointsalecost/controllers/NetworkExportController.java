@@ -0,0 +1,120 @@
+package com.microservice.pointsalecost.controllers;
+
+import com.microservice.pointsalecost.enums.DataFormat;
+import com.microservice.pointsalecost.enums.RoleEnum;
+import com.microservice.pointsalecost.services.NetworkExportService;
+import com.microservice.pointsalecost.utils.RoleValidator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Network Export", description = "Streams the whole cost network as CSV or NDJSON, optionally gzipped and incremental")
+public class NetworkExportController {
+
+    //Instant to be sent back as since for the next incremental export.
+    public static final String WATERMARK_HEADER = "X-Export-Watermark";
+
+    private final NetworkExportService networkExportService;
+    private final Duration watermarkLag;
+
+    public NetworkExportController(NetworkExportService networkExportService,
+                                   @Value("${cost.export.watermark-lag:PT5M}") Duration watermarkLag) {
+        this.networkExportService = networkExportService;
+        this.watermarkLag = watermarkLag;
+    }
+
+    @GetMapping("/pointsOfSale")
+    @Operation(summary = "Export Points of Sale", description = "Streams every active Point of Sale, or every Point of Sale modified since the given instant (deactivated ones included). Gzipped when the client accepts it. Accessible by ADMIN and CLIENT roles.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Points of Sale streamed, the X-Export-Watermark header is the since of the next incremental export"),
+            @ApiResponse(responseCode = "403", description = "Access denied")})
+    public void exportPointsOfSale(@RequestParam(defaultValue = "CSV") DataFormat format,
+                                   @Parameter(description = "ISO-8601 instant, only rows modified at or after it are exported") @RequestParam(required = false) Instant since,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                   @RequestHeader("X-User-Authorities") String roles,
+                                   HttpServletResponse response) throws IOException {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN or CLIENT to export the Points of Sale", RoleEnum.ADMIN, RoleEnum.CLIENT);
+        try (OutputStream output = open(response, format, acceptEncoding)) {
+            networkExportService.exportPointsOfSale(output, format, since);
+        }
+    }
+
+    @GetMapping("/costs")
+    @Operation(summary = "Export Costs", description = "Streams every cost between active Points of Sale, or only the costs modified since the given instant. An incremental export carries no deletions: deleted costs and the costs of deactivated Points of Sale need a full export. The CSV can be sent back to /api/cost/import. Gzipped when the client accepts it. Accessible by ADMIN and CLIENT roles.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Costs streamed, the X-Export-Watermark header is the since of the next incremental export"),
+            @ApiResponse(responseCode = "403", description = "Access denied")})
+    public void exportCosts(@RequestParam(defaultValue = "CSV") DataFormat format,
+                            @Parameter(description = "ISO-8601 instant, only rows modified at or after it are exported") @RequestParam(required = false) Instant since,
+                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                            @RequestHeader("X-User-Authorities") String roles,
+                            HttpServletResponse response) throws IOException {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN or CLIENT to export the costs", RoleEnum.ADMIN, RoleEnum.CLIENT);
+        try (OutputStream output = open(response, format, acceptEncoding)) {
+            networkExportService.exportCosts(output, format, since);
+        }
+    }
+
+    //Headers go out before the first row. Rows carry the time of their flush, not of their commit, so a transaction
+    //still open when the export starts can commit rows stamped before it: the watermark lags by the longest transaction.
+    //Rows in the overlap are exported twice, which upserts absorb.
+    private OutputStream open(HttpServletResponse response, DataFormat format, String acceptEncoding) throws IOException {
+        response.setContentType(format.mediaType().toString());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(WATERMARK_HEADER, Instant.now().minus(watermarkLag).toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+        }
+        return response.getOutputStream();
+    }
+
+    //gzip is accepted when listed, or covered by *, with a q-value above 0: "gzip;q=0" refuses it.
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase();
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = qualityOf(tokens);
+            } else if (coding.equals("*")) {
+                any = qualityOf(tokens);
+            }
+        }
+        double quality = gzip != null ? gzip : any != null ? any : 0;
+        return quality > 0;
+    }
+
+    private static double qualityOf(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -1,6 +1,9 @@
 package com.microservice.pointsalecost.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservice.pointsalecost.dtos.ApiResponseDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleBulkRequestDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSalePageDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleRequestDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleUpdateDTO;
@@ -12,11 +15,15 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 @RestController
@@ -25,9 +32,11 @@ import java.util.List;
 public class PontOfSaleController {
 
     private final PointOfSaleService pointOfSaleService;
+    private final ObjectMapper objectMapper;
 
-    public PontOfSaleController(PointOfSaleService pointOfSaleService) {
+    public PontOfSaleController(PointOfSaleService pointOfSaleService, ObjectMapper objectMapper) {
         this.pointOfSaleService = pointOfSaleService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/add")
@@ -43,6 +52,19 @@ public class PontOfSaleController {
         return new ResponseEntity<>(new ApiResponseDTO<>(true, "Point Of Sale Added", responseDTO), HttpStatus.CREATED);
     }
 
+    @PostMapping("/addAll")
+    @Operation(summary = "Add Points of Sale in Bulk", description = "Adds many new Points of Sale in one request. Only ADMIN role is allowed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Points of Sale added successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "400", description = "Invalid request")})
+    public ResponseEntity<ApiResponseDTO<PointOfSaleResponseDTO>> addPointsOfSale(@RequestBody @Valid PointOfSaleBulkRequestDTO pointOfSaleBulkRequestDTO,
+                                                                                  @RequestHeader("X-User-Authorities") String roles) {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN to add Points of Sale", RoleEnum.ADMIN);
+        List<PointOfSaleResponseDTO> responseDTOs = pointOfSaleService.saveAll(pointOfSaleBulkRequestDTO.pointsOfSale());
+        return new ResponseEntity<>(new ApiResponseDTO<>(true, "Points Of Sale Added", responseDTOs), HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get Point of Sale by ID", description = "Fetch a specific Point of Sale by its ID. ADMIN and CLIENT roles are allowed.")
     @ApiResponses(value = {
@@ -71,6 +93,40 @@ public class PontOfSaleController {
         }
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get a Page of Points of Sale", description = "Returns up to limit active Points of Sale with an id greater than after, in id order. Pass nextAfter back as after for the following page. Only ADMIN role is allowed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of Points of Sale returned successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied")})
+    public ResponseEntity<ApiResponseDTO<PointOfSalePageDTO>> getPointOfSalePage(@RequestParam(defaultValue = "0") long after,
+                                                                               @Parameter(description = "Page size, at most 1000") @RequestParam(defaultValue = "100") int limit,
+                                                                               @RequestHeader("X-User-Authorities") String roles) {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN to get the Points of Sale", RoleEnum.ADMIN);
+        PointOfSalePageDTO page = pointOfSaleService.getPage(after, limit);
+        return ResponseEntity.ok(new ApiResponseDTO<>(!page.pointsOfSale().isEmpty(), "Point Of Sales Page", page));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream All Points of Sale", description = "Writes every active Point of Sale as NDJSON, one page at a time, so the response size does not change the memory used. Only ADMIN role is allowed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Points of Sale streamed"),
+            @ApiResponse(responseCode = "403", description = "Access denied")})
+    public void streamPointsOfSale(@RequestHeader("X-User-Authorities") String roles, HttpServletResponse response) throws IOException {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN to get all Point of Sale", RoleEnum.ADMIN);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream output = response.getOutputStream();
+        Long after = 0L;
+        while (after != null) {
+            PointOfSalePageDTO page = pointOfSaleService.getPage(after, PointOfSaleService.MAX_PAGE_SIZE);
+            for (PointOfSaleResponseDTO pointOfSale : page.pointsOfSale()) {
+                output.write(objectMapper.writeValueAsBytes(pointOfSale));
+                output.write('\n');
+            }
+            output.flush();
+            after = page.nextAfter();
+        }
+    }
+
     @PutMapping("/update")
     @Operation(summary = "Update Point of Sale", description = "Updates a Point of Sale. Only ADMIN role is allowed.")
     @ApiResponses(value = {
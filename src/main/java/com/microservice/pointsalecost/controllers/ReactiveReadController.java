@@ -0,0 +1,80 @@
+package com.microservice.pointsalecost.controllers;
+
+import com.microservice.pointsalecost.dtos.ApiResponseDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import com.microservice.pointsalecost.enums.RoleEnum;
+import com.microservice.pointsalecost.enums.SearchMode;
+import com.microservice.pointsalecost.services.ReactiveReadService;
+import com.microservice.pointsalecost.utils.RoleValidator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/reactive")
+@Tag(name = "Reactive Reads", description = "Non-blocking read endpoints for Points of Sale and Costs, lists are streamed as NDJSON")
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+
+    public ReactiveReadController(ReactiveReadService reactiveReadService) {
+        this.reactiveReadService = reactiveReadService;
+    }
+
+    @GetMapping("/pointOfSale/{id}")
+    @Operation(summary = "Get Point of Sale by ID", description = "Non-blocking variant of /api/pointOfSale/{id}. ADMIN and CLIENT roles are allowed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Point of Sale found"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "Point of Sale not found")})
+    public Mono<ResponseEntity<ApiResponseDTO<PointOfSaleResponseDTO>>> getPointOfSale(@PathVariable Long id, @RequestHeader("X-User-Authorities") String roles) {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN or CLIENT to get a specific Point of Sale", RoleEnum.ADMIN, RoleEnum.CLIENT);
+        return reactiveReadService.findPointOfSale(id)
+                .map(pointOfSale -> ResponseEntity.ok(new ApiResponseDTO<>(true, "Point Of Sale Found", pointOfSale)));
+    }
+
+    @GetMapping(value = "/pointOfSale/getAll", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream All Points of Sale", description = "Streams every active Point of Sale, one JSON object per line, as fast as the client reads. Only ADMIN role is allowed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Points of Sale streamed"),
+            @ApiResponse(responseCode = "403", description = "Access denied")})
+    public Flux<PointOfSaleResponseDTO> getAllPointOfSales(@RequestHeader("X-User-Authorities") String roles) {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN to get all Point of Sale", RoleEnum.ADMIN);
+        return reactiveReadService.streamPointsOfSale();
+    }
+
+    @GetMapping(value = "/cost/direct/{id}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream Direct Costs", description = "Streams the direct costs from a specific Point of Sale, one JSON object per line. Accessible by ADMIN and CLIENT roles.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Direct costs streamed, empty when there are none"),
+            @ApiResponse(responseCode = "403", description = "Access denied")})
+    public Flux<CostResponseDTO> getDirectCostsFromPoint(@PathVariable Long id, @RequestHeader("X-User-Authorities") String roles) {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN or CLIENT to get the direct costs", RoleEnum.ADMIN, RoleEnum.CLIENT);
+        return reactiveReadService.directCostFromOnePoint(id);
+    }
+
+    @GetMapping("/cost/minimum/{idA}/{idB}")
+    @Operation(summary = "Get Minimum Cost Path", description = "Non-blocking variant of /api/cost/minimum/{idA}/{idB}. Accessible by ADMIN and CLIENT roles.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Minimum cost path returned successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "No minimum cost path found")})
+    public Mono<ResponseEntity<ApiResponseDTO<CostMinimumDTO>>> getMinimumCostPath(@PathVariable Long idA, @PathVariable Long idB,
+                                                                                   @RequestParam(required = false) SearchMode mode,
+                                                                                   @RequestHeader("X-User-Authorities") String roles) {
+        RoleValidator.validateRole(roles,"Access denied: You must be an ADMIN or CLIENT to get the minimum cost path", RoleEnum.ADMIN, RoleEnum.CLIENT);
+        return reactiveReadService.minimumCostPath(idA, idB, mode)
+                .filter(costMinimumDTO -> !costMinimumDTO.pointOfSaleResponse().isEmpty())
+                .map(costMinimumDTO -> new ResponseEntity<>(new ApiResponseDTO<>(true, "Minimum Cost Path Found", costMinimumDTO), HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(new ApiResponseDTO<>(false, "No Minimum Cost Path Found", null), HttpStatus.NOT_FOUND));
+    }
+}
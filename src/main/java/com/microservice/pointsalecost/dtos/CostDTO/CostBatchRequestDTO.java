@@ -0,0 +1,16 @@
+package com.microservice.pointsalecost.dtos.CostDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CostBatchRequestDTO(
+        @Schema(description = "Origin/destination pairs to evaluate")
+        @NotEmpty(message = "pairs must not be empty")
+        @Size(max = 50000, message = "pairs must not contain more than 50000 entries")
+        List<@Valid CostPairDTO> pairs
+) {
+}
@@ -0,0 +1,25 @@
+package com.microservice.pointsalecost.dtos.CostDTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CostBatchResultDTO(
+        @Schema(description = "ID of the origin point", example = "1")
+        Long idA,
+
+        @Schema(description = "ID of the destination point", example = "5")
+        Long idB,
+
+        @Schema(description = "Total cost of the minimum path, absent when there is no path", example = "16.0")
+        Double totalCost,
+
+        @Schema(description = "IDs of the points forming the minimum cost path")
+        List<Long> path,
+
+        @Schema(description = "Why no path was returned", example = "No Minimum Cost Path Found")
+        String message
+) {
+}
@@ -0,0 +1,12 @@
+package com.microservice.pointsalecost.dtos.CostDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record CostImportErrorDTO(
+        @Schema(description = "Line of the rejected row in the uploaded file, starting at 1", example = "42")
+        long line,
+
+        @Schema(description = "Why the row was rejected", example = "Point of Sale B not found: 99")
+        String message
+) {
+}
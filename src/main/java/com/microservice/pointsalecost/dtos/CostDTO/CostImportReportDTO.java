@@ -0,0 +1,20 @@
+package com.microservice.pointsalecost.dtos.CostDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record CostImportReportDTO(
+        @Schema(description = "Data rows read from the file", example = "5000")
+        long rows,
+
+        @Schema(description = "Costs inserted", example = "4990")
+        long imported,
+
+        @Schema(description = "Rows rejected", example = "10")
+        long rejected,
+
+        @Schema(description = "Rejected rows with the reason, the first 1000 at most")
+        List<CostImportErrorDTO> errors
+) {
+}
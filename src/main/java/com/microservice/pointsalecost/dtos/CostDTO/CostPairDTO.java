@@ -0,0 +1,15 @@
+package com.microservice.pointsalecost.dtos.CostDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+public record CostPairDTO(
+        @Schema(description = "ID of the origin point", example = "1")
+        @NotNull(message = "ID A must not be null")
+        Long idA,
+
+        @Schema(description = "ID of the destination point", example = "5")
+        @NotNull(message = "ID B must not be null")
+        Long idB
+) {
+}
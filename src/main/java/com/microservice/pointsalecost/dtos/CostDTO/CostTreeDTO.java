@@ -0,0 +1,14 @@
+package com.microservice.pointsalecost.dtos.CostDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record CostTreeDTO(
+        @Schema(description = "ID of the origin point of sale", example = "1")
+        Long originId,
+
+        @Schema(description = "Every point reachable from the origin with its minimum total cost")
+        List<CostTreeEntryDTO> points
+) {
+}
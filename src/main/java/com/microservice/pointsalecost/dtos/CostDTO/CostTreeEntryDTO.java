@@ -0,0 +1,17 @@
+package com.microservice.pointsalecost.dtos.CostDTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CostTreeEntryDTO(
+        @Schema(description = "ID of the reached point of sale", example = "5")
+        Long id,
+
+        @Schema(description = "Total cost of the minimum path from the origin", example = "16.0")
+        Double totalCost,
+
+        @Schema(description = "ID of the previous point on the minimum path, absent for the origin and in compact mode", example = "4")
+        Long previousId
+) {
+}
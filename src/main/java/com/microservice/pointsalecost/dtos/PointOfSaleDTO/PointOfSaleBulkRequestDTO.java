@@ -0,0 +1,16 @@
+package com.microservice.pointsalecost.dtos.PointOfSaleDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PointOfSaleBulkRequestDTO(
+        @Schema(description = "Points of sale to register")
+        @NotEmpty(message = "pointsOfSale must not be empty")
+        @Size(max = 10000, message = "pointsOfSale must not contain more than 10000 entries")
+        List<@Valid PointOfSaleRequestDTO> pointsOfSale
+) {
+}
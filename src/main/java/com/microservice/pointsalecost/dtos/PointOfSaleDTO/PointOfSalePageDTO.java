@@ -0,0 +1,14 @@
+package com.microservice.pointsalecost.dtos.PointOfSaleDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record PointOfSalePageDTO(
+        @Schema(description = "Active points of sale of the page, in id order")
+        List<PointOfSaleResponseDTO> pointsOfSale,
+
+        @Schema(description = "Value of after for the next page, null on the last page", example = "250")
+        Long nextAfter
+) {
+}
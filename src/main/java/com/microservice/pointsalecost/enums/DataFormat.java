@@ -0,0 +1,25 @@
+package com.microservice.pointsalecost.enums;
+
+import org.springframework.http.MediaType;
+
+public enum DataFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    DataFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static DataFormat of(MediaType contentType) {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,6 @@
+package com.microservice.pointsalecost.enums;
+
+public enum RedisValueFormat {
+    JSON,
+    COMPACT
+}
@@ -0,0 +1,8 @@
+package com.microservice.pointsalecost.enums;
+
+public enum SearchMode {
+    DIJKSTRA,
+    BIDIRECTIONAL,
+    ALT,
+    CH
+}
@@ -0,0 +1,222 @@
+package com.microservice.pointsalecost.graph;
+
+import com.microservice.pointsalecost.models.PointOfSale;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory membership of active points of sale, indexed by id. Writers copy the bit set and publish the
+ * copy, so a path search can take one {@link #snapshot()} and test every neighbour without locks or Redis calls.
+ * <p>
+ * Like {@link CostGraphEngine}, the index records the changes made before the warm-up load and replays them
+ * on top of the loaded points. Until the first load is published {@link #isLoaded()} is false and readers
+ * check the points in the database.
+ * <p>
+ * Writes run on every point save, update and delete. As in the engine they take a {@link ReentrantLock} instead of
+ * a monitor and the listeners run once it is released.
+ */
+@Component
+public class ActivePointIndex {
+
+    private volatile State state = new State(new BitSet(), 0L);
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    // Changes made before the first load, replayed on top of it; null once it is published.
+    private List<Consumer<BitSet>> changesBeforeLoad = new ArrayList<>();
+    private volatile boolean loaded;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /** Replaces the active points with the loaded ones, with the changes made before the first load replayed on top. */
+    public void load(Collection<PointOfSale> pointsOfSale) {
+        BitSet bits = new BitSet();
+        pointsOfSale.stream()
+                .filter(pointOfSale -> pointOfSale.isActive() && inRange(pointOfSale.getId()))
+                .forEach(pointOfSale -> bits.set(pointOfSale.getId().intValue()));
+        writeLock.lock();
+        try {
+            if (changesBeforeLoad != null) {
+                changesBeforeLoad.forEach(change -> change.accept(bits));
+                changesBeforeLoad = null;
+            }
+            loaded = true;
+            publish(bits);
+        } finally {
+            writeLock.unlock();
+        }
+        notifyListeners();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void update(PointOfSale pointOfSale) {
+        if (pointOfSale.isActive()) {
+            activate(pointOfSale.getId());
+        } else {
+            deactivate(pointOfSale.getId());
+        }
+    }
+
+    public void activate(Long id) {
+        if (!inRange(id)) {
+            return;
+        }
+        int bit = id.intValue();
+        boolean changed;
+        writeLock.lock();
+        try {
+            record(bits -> bits.set(bit));
+            changed = !state.bits().get(bit);
+            if (changed) {
+                BitSet copy = (BitSet) state.bits().clone();
+                copy.set(bit);
+                publish(copy);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    /** Activates many points with a single copy and a single change notification. */
+    public void activateAll(Collection<Long> ids) {
+        int[] bits = ids.stream().filter(ActivePointIndex::inRange).mapToInt(Long::intValue).toArray();
+        boolean changed;
+        writeLock.lock();
+        try {
+            record(set -> Arrays.stream(bits).forEach(set::set));
+            BitSet copy = (BitSet) state.bits().clone();
+            Arrays.stream(bits).forEach(copy::set);
+            changed = !copy.equals(state.bits());
+            if (changed) {
+                publish(copy);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    public void deactivate(Long id) {
+        if (!inRange(id)) {
+            return;
+        }
+        int bit = id.intValue();
+        boolean changed;
+        writeLock.lock();
+        try {
+            record(bits -> bits.clear(bit));
+            changed = state.bits().get(bit);
+            if (changed) {
+                BitSet copy = (BitSet) state.bits().clone();
+                copy.clear(bit);
+                publish(copy);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    /** Deactivates many points with a single copy and a single change notification. */
+    public void deactivateAll(Collection<Long> ids) {
+        int[] bits = ids.stream().filter(ActivePointIndex::inRange).mapToInt(Long::intValue).toArray();
+        boolean changed;
+        writeLock.lock();
+        try {
+            record(set -> Arrays.stream(bits).forEach(set::clear));
+            BitSet copy = (BitSet) state.bits().clone();
+            Arrays.stream(bits).forEach(copy::clear);
+            changed = !copy.equals(state.bits());
+            if (changed) {
+                publish(copy);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    private void record(Consumer<BitSet> change) {
+        if (changesBeforeLoad != null) {
+            changesBeforeLoad.add(change);
+        }
+    }
+
+    public boolean isActive(long id) {
+        return contains(state.bits(), id);
+    }
+
+    /** Up to {@code limit} active ids greater than {@code after}, ascending; the bit set is the sorted id index. */
+    public List<Long> idsAfter(long after, int limit) {
+        BitSet current = state.bits();
+        List<Long> ids = new ArrayList<>(Math.min(limit, current.cardinality()));
+        if (after >= Integer.MAX_VALUE) {
+            return ids;
+        }
+        for (int bit = current.nextSetBit((int) Math.max(after + 1, 0)); bit >= 0 && ids.size() < limit; bit = nextBit(current, bit)) {
+            ids.add((long) bit);
+        }
+        return ids;
+    }
+
+    public int count() {
+        return state.bits().cardinality();
+    }
+
+    /** Incremented on every change, so derived structures can tell whether they are still current. */
+    public long version() {
+        return state.version();
+    }
+
+    /** Consistent view of the active points for the duration of one query. */
+    public LongPredicate snapshot() {
+        BitSet current = state.bits();
+        return id -> contains(current, id);
+    }
+
+    /** Runs the listener after every change, on the writing thread and outside the write lock. */
+    public void onChange(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    private void publish(BitSet bits) {
+        state = new State(bits, state.version() + 1);
+    }
+
+    private void notifyListeners() {
+        changeListeners.forEach(Runnable::run);
+    }
+
+    private static boolean contains(BitSet bits, long id) {
+        return inRange(id) && bits.get((int) id);
+    }
+
+    private static int nextBit(BitSet bits, int bit) {
+        return bit == Integer.MAX_VALUE ? -1 : bits.nextSetBit(bit + 1);
+    }
+
+    // The bit set is indexed by int, ids outside of it are never active: writes skip them, reads answer inactive.
+    private static boolean inRange(long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private record State(BitSet bits, long version) {}
+}
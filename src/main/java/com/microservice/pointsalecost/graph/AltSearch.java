@@ -0,0 +1,63 @@
+package com.microservice.pointsalecost.graph;
+
+import java.util.function.LongPredicate;
+
+/**
+ * A* search guided by {@link Landmarks} (ALT). The landmark bound is consistent, so every point is settled at
+ * most once and the search can stop as soon as the destination is popped.
+ */
+final class AltSearch {
+
+    private AltSearch() {
+    }
+
+    static PathResult search(Landmarks landmarks, long from, long to, LongPredicate isActive, SearchStats stats) {
+        CostGraph graph = landmarks.graph();
+        int source = graph.indexOf(from);
+        int target = graph.indexOf(to);
+        if (source < 0 || target < 0) {
+            return from == to ? new PathResult(new long[]{from}, 0.0) : null;
+        }
+
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+        IndexedHeap queue = workspace.heap();
+        workspace.set(source, 0.0, -1);
+        queue.offer(source, potential(landmarks, workspace, source, target));
+
+        int settled = 0;
+        try {
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                settled++;
+                if (node == target) {
+                    return DijkstraSearch.toPathResult(graph, workspace, target, workspace.cost(target));
+                }
+                double nodeCost = workspace.cost(node);
+                for (int edge = graph.firstEdge(node); edge < graph.lastEdge(node); edge++) {
+                    int next = graph.target(edge);
+                    double newCost = nodeCost + graph.weight(edge);
+                    if (newCost < workspace.cost(next) && isActive.test(graph.idOf(next))) {
+                        double estimate = potential(landmarks, workspace, next, target);
+                        if (Double.isInfinite(estimate)) {
+                            continue; // the destination cannot be reached from this point
+                        }
+                        workspace.set(next, newCost, node);
+                        queue.offer(next, newCost + estimate);
+                    }
+                }
+            }
+            return null;
+        } finally {
+            if (stats != null) {
+                stats.settled(settled);
+            }
+        }
+    }
+
+    private static double potential(Landmarks landmarks, SearchWorkspace workspace, int node, int target) {
+        if (!workspace.hasPotential(node)) {
+            workspace.setPotential(node, landmarks.lowerBound(node, target));
+        }
+        return workspace.potential(node);
+    }
+}
@@ -0,0 +1,76 @@
+package com.microservice.pointsalecost.graph;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Point to point Dijkstra run from both ends at once. Costs are undirected, so the backward search walks the
+ * same adjacency. The search stops when the two frontiers together cannot improve the best meeting point.
+ */
+public final class BidirectionalSearch {
+
+    private BidirectionalSearch() {
+    }
+
+    public static PathResult search(CostGraph graph, long from, long to, LongPredicate isActive, SearchStats stats) {
+        int source = graph.indexOf(from);
+        int target = graph.indexOf(to);
+        if (source < 0 || target < 0 || source == target) {
+            return from == to ? new PathResult(new long[]{from}, 0.0) : null;
+        }
+
+        SearchWorkspace forwardSide = SearchWorkspace.forward(graph.nodeCount());
+        SearchWorkspace backwardSide = SearchWorkspace.backward(graph.nodeCount());
+        forwardSide.set(source, 0.0, -1);
+        backwardSide.set(target, 0.0, -1);
+        forwardSide.heap().offer(source, 0.0);
+        backwardSide.heap().offer(target, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int settled = 0;
+
+        while (!forwardSide.heap().isEmpty() && !backwardSide.heap().isEmpty()
+                && forwardSide.heap().peekKey() + backwardSide.heap().peekKey() < best) {
+            boolean forward = forwardSide.heap().size() <= backwardSide.heap().size();
+            SearchWorkspace side = forward ? forwardSide : backwardSide;
+            SearchWorkspace other = forward ? backwardSide : forwardSide;
+
+            int node = side.heap().poll();
+            double nodeCost = side.cost(node);
+            settled++;
+            for (int edge = graph.firstEdge(node); edge < graph.lastEdge(node); edge++) {
+                int next = graph.target(edge);
+                double newCost = nodeCost + graph.weight(edge);
+                if (newCost < side.cost(next) && isActive.test(graph.idOf(next))) {
+                    side.set(next, newCost, node);
+                    side.heap().offer(next, newCost);
+                }
+                if (side.cost(next) + other.cost(next) < best) {
+                    best = side.cost(next) + other.cost(next);
+                    meeting = next;
+                }
+            }
+        }
+
+        if (stats != null) {
+            stats.settled(settled);
+        }
+        return meeting < 0 ? null : toPathResult(graph, forwardSide, backwardSide, meeting, best);
+    }
+
+    // The backward side's predecessors point towards the destination.
+    private static PathResult toPathResult(CostGraph graph, SearchWorkspace forwardSide, SearchWorkspace backwardSide, int meeting, double totalCost) {
+        long[] head = DijkstraSearch.toPathResult(graph, forwardSide, meeting, totalCost).path();
+        int tailLength = 0;
+        for (int current = backwardSide.previous(meeting); current != -1; current = backwardSide.previous(current)) {
+            tailLength++;
+        }
+        long[] path = Arrays.copyOf(head, head.length + tailLength);
+        int position = head.length;
+        for (int current = backwardSide.previous(meeting); current != -1; current = backwardSide.previous(current)) {
+            path[position++] = graph.idOf(current);
+        }
+        return new PathResult(path, totalCost);
+    }
+}
@@ -0,0 +1,179 @@
+package com.microservice.pointsalecost.graph;
+
+import com.microservice.pointsalecost.models.Cost;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Connected components of the active points of sale, so pairs that cannot reach each other are answered
+ * without running a search. New costs merge components incrementally through a union-find over component
+ * labels; removals and changes to the active points can split components, so they only mark the labels
+ * stale and the next query labels the current snapshot again.
+ * <p>
+ * Guarded by a {@link ReentrantLock} rather than a monitor: a relabel can take a while, and virtual threads
+ * waiting on a monitor would pin their carriers for that long.
+ */
+@Component
+public class ComponentIndex {
+
+    private final CostGraphEngine costGraphEngine;
+    private final ActivePointIndex activePointIndex;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Component label of every point id, 0 for points without active costs.
+    private int[] labels = new int[0];
+    // Union-find over labels, a root is its own parent.
+    private int[] parent = new int[1];
+    private int labelCount;
+    private boolean stale = true;
+
+    public ComponentIndex(CostGraphEngine costGraphEngine, ActivePointIndex activePointIndex) {
+        this.costGraphEngine = costGraphEngine;
+        this.activePointIndex = activePointIndex;
+        costGraphEngine.onCostAdded(this::connect);
+        costGraphEngine.onCostsRemoved(this::invalidate);
+        activePointIndex.onChange(this::invalidate);
+    }
+
+    /** True when a path between the two points can exist. Both points are expected to be active. */
+    public boolean connected(long idA, long idB) {
+        if (idA == idB) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (stale) {
+                relabel();
+            }
+            int labelA = labelOf(idA);
+            return labelA != 0 && labelA == labelOf(idB);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.lock();
+        try {
+            stale = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void connect(Cost cost) {
+        lock.lock();
+        try {
+            merge(cost.getIdA(), cost.getIdB());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void merge(long idA, long idB) {
+        if (stale || !activePointIndex.isActive(idA) || !activePointIndex.isActive(idB)) {
+            return;
+        }
+        int labelA = labelOf(idA);
+        int labelB = labelOf(idB);
+        if (labelA == 0 && labelB == 0) {
+            int label = newLabel();
+            setLabel(idA, label);
+            setLabel(idB, label);
+        } else if (labelA == 0) {
+            setLabel(idA, labelB);
+        } else if (labelB == 0) {
+            setLabel(idB, labelA);
+        } else if (labelA != labelB) {
+            parent[labelA] = labelB;
+        }
+    }
+
+    private void relabel() {
+        CostGraph graph = costGraphEngine.snapshot();
+        int nodes = graph.nodeCount();
+        boolean[] active = new boolean[nodes];
+        // Only active points are labelled, and active ids fit in an int; costs may still name larger ids.
+        int labelled = 0;
+        for (int node = 0; node < nodes; node++) {
+            active[node] = activePointIndex.isActive(graph.idOf(node));
+            if (active[node]) {
+                labelled = (int) graph.idOf(node) + 1;
+            }
+        }
+
+        labels = new int[labelled];
+        parent = new int[Math.max(1, nodes / 2 + 1)];
+        labelCount = 0;
+        int[] stack = new int[nodes];
+        for (int start = 0; start < nodes; start++) {
+            if (!active[start] || labelOf(graph.idOf(start)) != 0 || !hasActiveNeighbour(graph, start, active)) {
+                continue;
+            }
+            int label = newLabel();
+            int size = 0;
+            stack[size++] = start;
+            setLabel(graph.idOf(start), label);
+            while (size > 0) {
+                int node = stack[--size];
+                for (int edge = graph.firstEdge(node); edge < graph.lastEdge(node); edge++) {
+                    int next = graph.target(edge);
+                    if (active[next] && labelOf(graph.idOf(next)) == 0) {
+                        setLabel(graph.idOf(next), label);
+                        stack[size++] = next;
+                    }
+                }
+            }
+        }
+        stale = false;
+    }
+
+    // A point whose costs all lead to inactive points is alone and keeps no label.
+    private static boolean hasActiveNeighbour(CostGraph graph, int node, boolean[] active) {
+        for (int edge = graph.firstEdge(node); edge < graph.lastEdge(node); edge++) {
+            if (active[graph.target(edge)]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int labelOf(long id) {
+        if (id < 0 || id >= labels.length || labels[(int) id] == 0) {
+            return 0;
+        }
+        return find(labels[(int) id]);
+    }
+
+    private int find(int label) {
+        int root = label;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[label] != root) {
+            int next = parent[label];
+            parent[label] = root;
+            label = next;
+        }
+        return root;
+    }
+
+    private int newLabel() {
+        int label = ++labelCount;
+        if (label >= parent.length) {
+            parent = Arrays.copyOf(parent, label * 2);
+        }
+        parent[label] = label;
+        return label;
+    }
+
+    private void setLabel(long id, int label) {
+        int index = Math.toIntExact(id);
+        if (index >= labels.length) {
+            labels = Arrays.copyOf(labels, Math.max(index + 1, labels.length * 2));
+        }
+        labels[index] = label;
+    }
+}
@@ -0,0 +1,164 @@
+package com.microservice.pointsalecost.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.LongPredicate;
+
+/**
+ * Contraction hierarchy of one {@link CostGraph} snapshot restricted to one version of the active points.
+ * Only upward edges (towards points contracted later) are kept. Costs are undirected, so both halves of the
+ * query walk the same upward graph and meet at the highest point of the path. Shortcuts remember the point
+ * they skip, which is how the query unpacks them back into the original points of sale.
+ */
+public final class ContractionHierarchy {
+
+    private final CostGraph graph;
+    private final long activeVersion;
+    private final int[] rank;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] middles;
+
+    ContractionHierarchy(CostGraph graph, long activeVersion, int[] rank, int[] offsets, int[] targets, double[] weights, int[] middles) {
+        this.graph = graph;
+        this.activeVersion = activeVersion;
+        this.rank = rank;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.middles = middles;
+    }
+
+    public static ContractionHierarchy build(CostGraph graph, LongPredicate isActive, long activeVersion) {
+        return new ContractionHierarchyBuilder(graph, isActive).build(activeVersion);
+    }
+
+    public CostGraph graph() {
+        return graph;
+    }
+
+    public long activeVersion() {
+        return activeVersion;
+    }
+
+    public PathResult search(long from, long to, SearchStats stats) {
+        int source = graph.indexOf(from);
+        int target = graph.indexOf(to);
+        if (source < 0 || target < 0 || rank[source] < 0 || rank[target] < 0) {
+            return from == to ? new PathResult(new long[]{from}, 0.0) : null;
+        }
+
+        SearchWorkspace forwardSide = SearchWorkspace.forward(graph.nodeCount());
+        SearchWorkspace backwardSide = SearchWorkspace.backward(graph.nodeCount());
+        forwardSide.set(source, 0.0, -1);
+        backwardSide.set(target, 0.0, -1);
+        forwardSide.heap().offer(source, 0.0);
+        backwardSide.heap().offer(target, 0.0);
+
+        double best = source == target ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = source == target ? source : -1;
+        int settled = 0;
+        boolean forward = true;
+
+        // Upward searches cannot stop at the first meeting, only once neither side can still improve it.
+        while (!done(forwardSide.heap(), best) || !done(backwardSide.heap(), best)) {
+            if (done((forward ? forwardSide : backwardSide).heap(), best)) {
+                forward = !forward;
+            }
+            SearchWorkspace side = forward ? forwardSide : backwardSide;
+            SearchWorkspace other = forward ? backwardSide : forwardSide;
+            forward = !forward;
+
+            int node = side.heap().poll();
+            double nodeCost = side.cost(node);
+            settled++;
+            if (nodeCost + other.cost(node) < best) {
+                best = nodeCost + other.cost(node);
+                meeting = node;
+            }
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                int next = targets[edge];
+                double newCost = nodeCost + weights[edge];
+                if (newCost < side.cost(next)) {
+                    side.set(next, newCost, node);
+                    side.heap().offer(next, newCost);
+                }
+            }
+        }
+
+        if (stats != null) {
+            stats.settled(settled);
+        }
+        return meeting < 0 ? null : new PathResult(unpackPath(forwardSide, backwardSide, meeting), best);
+    }
+
+    private static boolean done(IndexedHeap queue, double best) {
+        return queue.isEmpty() || queue.peekKey() >= best;
+    }
+
+    private long[] unpackPath(SearchWorkspace forwardSide, SearchWorkspace backwardSide, int meeting) {
+        // Upward chain source -> meeting, then the backward chain meeting -> target.
+        Deque<Integer> upward = new ArrayDeque<>();
+        for (int node = meeting; node != -1; node = forwardSide.previous(node)) {
+            upward.push(node);
+        }
+        PointList path = new PointList();
+        int previous = upward.pop();
+        path.add(graph.idOf(previous));
+        while (!upward.isEmpty()) {
+            int node = upward.pop();
+            unpackEdge(previous, node, path);
+            previous = node;
+        }
+        for (int node = backwardSide.previous(meeting); node != -1; node = backwardSide.previous(node)) {
+            unpackEdge(previous, node, path);
+            previous = node;
+        }
+        return path.toArray();
+    }
+    /** Appends the original points from {@code from} (excluded) to {@code to} (included). */
+    private void unpackEdge(int from, int to, PointList path) {
+        Deque<int[]> pending = new ArrayDeque<>();
+        pending.push(new int[]{from, to});
+        while (!pending.isEmpty()) {
+            int[] segment = pending.pop();
+            int middle = middleOf(segment[0], segment[1]);
+            if (middle < 0) {
+                path.add(graph.idOf(segment[1]));
+            } else {
+                pending.push(new int[]{middle, segment[1]});
+                pending.push(new int[]{segment[0], middle});
+            }
+        }
+    }
+
+    // Every overlay edge is stored at its lower ranked endpoint.
+    private int middleOf(int nodeA, int nodeB) {
+        int lower = rank[nodeA] < rank[nodeB] ? nodeA : nodeB;
+        int upper = lower == nodeA ? nodeB : nodeA;
+        for (int edge = offsets[lower]; edge < offsets[lower + 1]; edge++) {
+            if (targets[edge] == upper) {
+                return middles[edge];
+            }
+        }
+        throw new IllegalStateException("Missing hierarchy edge between " + graph.idOf(nodeA) + " and " + graph.idOf(nodeB));
+    }
+
+    private static final class PointList {
+        private long[] ids = new long[16];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.microservice.pointsalecost.graph;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Contracts the active points of a {@link CostGraph} one by one, cheapest first by edge difference plus
+ * contracted neighbours, adding a shortcut wherever a bounded witness search finds no path that avoids the
+ * contracted point. Single threaded and only used by {@link ContractionHierarchy#build}.
+ */
+final class ContractionHierarchyBuilder {
+
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final CostGraph graph;
+    private final int nodes;
+
+    // Overlay graph: original costs plus shortcuts, one entry per neighbour in both endpoints.
+    private final int[][] neighbours;
+    private final double[][] weights;
+    private final int[][] middles;
+    private final int[] degree;
+
+    private final boolean[] contracted;
+    private final int[] contractedNeighbours;
+    private final int[] rank;
+
+    // Witness search workspace, reset through the stamp instead of refilling the arrays.
+    private final double[] witnessCost;
+    private final int[] witnessStamp;
+    private final IndexedHeap witnessQueue = new IndexedHeap();
+    private int currentStamp;
+
+    ContractionHierarchyBuilder(CostGraph graph, LongPredicate isActive) {
+        this.graph = graph;
+        this.nodes = graph.nodeCount();
+        this.neighbours = new int[nodes][];
+        this.weights = new double[nodes][];
+        this.middles = new int[nodes][];
+        this.degree = new int[nodes];
+        this.contracted = new boolean[nodes];
+        this.contractedNeighbours = new int[nodes];
+        this.rank = new int[nodes];
+        this.witnessCost = new double[nodes];
+        this.witnessStamp = new int[nodes];
+        Arrays.fill(rank, -1);
+
+        for (int node = 0; node < nodes; node++) {
+            int capacity = Math.max(INITIAL_CAPACITY, graph.lastEdge(node) - graph.firstEdge(node));
+            neighbours[node] = new int[capacity];
+            weights[node] = new double[capacity];
+            middles[node] = new int[capacity];
+            // Inactive points never take part, as if they were already contracted.
+            contracted[node] = !isActive.test(graph.idOf(node));
+        }
+        for (int node = 0; node < nodes; node++) {
+            if (contracted[node]) {
+                continue;
+            }
+            for (int edge = graph.firstEdge(node); edge < graph.lastEdge(node); edge++) {
+                if (!contracted[graph.target(edge)]) {
+                    addOrImprove(node, graph.target(edge), graph.weight(edge), -1);
+                }
+            }
+        }
+    }
+
+    ContractionHierarchy build(long activeVersion) {
+        PriorityQueue<Frontier> order = new PriorityQueue<>();
+        for (int node = 0; node < nodes; node++) {
+            if (!contracted[node]) {
+                order.add(new Frontier(node, priority(node)));
+            }
+        }
+
+        int nextRank = 0;
+        while (!order.isEmpty()) {
+            int node = order.poll().node();
+            // Lazy update: priorities change as neighbours get contracted.
+            double priority = priority(node);
+            if (!order.isEmpty() && priority > order.peek().amount()) {
+                order.add(new Frontier(node, priority));
+                continue;
+            }
+            contract(node, true);
+            contracted[node] = true;
+            rank[node] = nextRank++;
+            for (int i = 0; i < degree[node]; i++) {
+                if (!contracted[neighbours[node][i]]) {
+                    contractedNeighbours[neighbours[node][i]]++;
+                }
+            }
+        }
+        return upwardGraph(activeVersion);
+    }
+
+    private double priority(int node) {
+        int activeDegree = 0;
+        for (int i = 0; i < degree[node]; i++) {
+            if (!contracted[neighbours[node][i]]) {
+                activeDegree++;
+            }
+        }
+        return contract(node, false) - activeDegree + contractedNeighbours[node];
+    }
+
+    /** Counts (and when {@code apply} adds) the shortcuts needed to remove {@code node}. */
+    private int contract(int node, boolean apply) {
+        int[] around = new int[degree[node]];
+        double[] aroundCost = new double[degree[node]];
+        int count = 0;
+        for (int i = 0; i < degree[node]; i++) {
+            if (!contracted[neighbours[node][i]]) {
+                around[count] = neighbours[node][i];
+                aroundCost[count++] = weights[node][i];
+            }
+        }
+
+        int shortcuts = 0;
+        for (int i = 0; i < count; i++) {
+            double maxCost = 0.0;
+            for (int j = i + 1; j < count; j++) {
+                maxCost = Math.max(maxCost, aroundCost[i] + aroundCost[j]);
+            }
+            if (i + 1 == count) {
+                break;
+            }
+            witnessSearch(around[i], node, maxCost);
+            for (int j = i + 1; j < count; j++) {
+                double viaNode = aroundCost[i] + aroundCost[j];
+                if (witness(around[j]) > viaNode) {
+                    shortcuts++;
+                    if (apply) {
+                        addOrImprove(around[i], around[j], viaNode, node);
+                        addOrImprove(around[j], around[i], viaNode, node);
+                    }
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    private void witnessSearch(int source, int excluded, double maxCost) {
+        currentStamp++;
+        witnessQueue.reset(nodes);
+        setWitness(source, 0.0);
+        witnessQueue.offer(source, 0.0);
+        int settled = 0;
+        while (!witnessQueue.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+            int node = witnessQueue.poll();
+            double nodeCost = witness(node);
+            if (nodeCost > maxCost) {
+                break;
+            }
+            settled++;
+            for (int i = 0; i < degree[node]; i++) {
+                int next = neighbours[node][i];
+                if (next == excluded || contracted[next]) {
+                    continue;
+                }
+                double newCost = nodeCost + weights[node][i];
+                if (newCost < witness(next)) {
+                    setWitness(next, newCost);
+                    witnessQueue.offer(next, newCost);
+                }
+            }
+        }
+    }
+
+    private double witness(int node) {
+        return witnessStamp[node] == currentStamp ? witnessCost[node] : Double.POSITIVE_INFINITY;
+    }
+
+    private void setWitness(int node, double cost) {
+        witnessStamp[node] = currentStamp;
+        witnessCost[node] = cost;
+    }
+
+    private void addOrImprove(int from, int to, double weight, int middle) {
+        for (int i = 0; i < degree[from]; i++) {
+            if (neighbours[from][i] == to) {
+                if (weight < weights[from][i]) {
+                    weights[from][i] = weight;
+                    middles[from][i] = middle;
+                }
+                return;
+            }
+        }
+        if (degree[from] == neighbours[from].length) {
+            int capacity = degree[from] * 2;
+            neighbours[from] = Arrays.copyOf(neighbours[from], capacity);
+            weights[from] = Arrays.copyOf(weights[from], capacity);
+            middles[from] = Arrays.copyOf(middles[from], capacity);
+        }
+        neighbours[from][degree[from]] = to;
+        weights[from][degree[from]] = weight;
+        middles[from][degree[from]++] = middle;
+    }
+
+    /** Keeps, for every point, only the overlay edges towards points contracted after it. */
+    private ContractionHierarchy upwardGraph(long activeVersion) {
+        int[] offsets = new int[nodes + 1];
+        for (int node = 0; node < nodes; node++) {
+            int upward = 0;
+            for (int i = 0; i < degree[node]; i++) {
+                if (rank[neighbours[node][i]] > rank[node]) {
+                    upward++;
+                }
+            }
+            offsets[node + 1] = offsets[node] + upward;
+        }
+
+        int[] targets = new int[offsets[nodes]];
+        double[] upWeights = new double[targets.length];
+        int[] upMiddles = new int[targets.length];
+        for (int node = 0; node < nodes; node++) {
+            int position = offsets[node];
+            for (int i = 0; i < degree[node]; i++) {
+                if (rank[neighbours[node][i]] > rank[node]) {
+                    targets[position] = neighbours[node][i];
+                    upWeights[position] = weights[node][i];
+                    upMiddles[position++] = middles[node][i];
+                }
+            }
+        }
+        return new ContractionHierarchy(graph, activeVersion, rank, offsets, targets, upWeights, upMiddles);
+    }
+}
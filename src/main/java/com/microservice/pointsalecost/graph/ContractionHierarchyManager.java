@@ -0,0 +1,85 @@
+package com.microservice.pointsalecost.graph;
+
+import com.microservice.pointsalecost.enums.SearchMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongPredicate;
+
+/**
+ * Keeps a {@link ContractionHierarchy} of the current graph and active points, rebuilt in the background
+ * after every change. A hierarchy is only handed out while it matches both the published graph snapshot
+ * and the active point version, so callers fall back to a plain search while a rebuild is pending.
+ */
+@Slf4j
+@Component
+public class ContractionHierarchyManager {
+
+    private final CostGraphEngine costGraphEngine;
+    private final ActivePointIndex activePointIndex;
+    private final Executor preprocessingExecutor;
+    private final boolean enabled;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile ContractionHierarchy hierarchy;
+
+    public ContractionHierarchyManager(CostGraphEngine costGraphEngine, ActivePointIndex activePointIndex,
+                                       @Qualifier("graphPreprocessingExecutor") Executor preprocessingExecutor,
+                                       @Value("${cost.search.ch.enabled:false}") boolean enabled) {
+        this.costGraphEngine = costGraphEngine;
+        this.activePointIndex = activePointIndex;
+        this.preprocessingExecutor = preprocessingExecutor;
+        this.enabled = enabled;
+        if (enabled) {
+            costGraphEngine.onChange(this::refresh);
+            activePointIndex.onChange(this::refresh);
+        }
+    }
+
+    /** The hierarchy for the current graph and active points, or null while it is being rebuilt. */
+    public ContractionHierarchy current() {
+        if (!enabled) {
+            return null;
+        }
+        ContractionHierarchy current = hierarchy;
+        if (current != null && current.graph() == costGraphEngine.snapshot() && current.activeVersion() == activePointIndex.version()) {
+            return current;
+        }
+        refresh();
+        return null;
+    }
+
+    /** Point to point search in the given mode, through the hierarchy when CH is asked for and one is current. */
+    public PathResult findPath(long from, long to, SearchMode mode) {
+        if (mode == SearchMode.CH) {
+            ContractionHierarchy current = current();
+            if (current != null) {
+                return current.search(from, to, null);
+            }
+        }
+        return costGraphEngine.findPath(from, to, activePointIndex.snapshot(), mode, null);
+    }
+
+    /** Schedules a rebuild unless one is already waiting to start. */
+    public void refresh() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            preprocessingExecutor.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        // Cleared before reading, so a change arriving during the build schedules another one.
+        rebuildPending.set(false);
+        long activeVersion = activePointIndex.version();
+        LongPredicate activePoints = activePointIndex.snapshot();
+        CostGraph graph = costGraphEngine.snapshot();
+        try {
+            hierarchy = ContractionHierarchy.build(graph, activePoints, activeVersion);
+        } catch (RuntimeException exception) {
+            log.error("Contraction hierarchy rebuild failed, searches keep the bidirectional fallback", exception);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.microservice.pointsalecost.graph;
+
+import com.microservice.pointsalecost.models.Cost;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable snapshot of the cost network stored in compressed-sparse-row form.
+ * Point of sale ids are remapped to dense indexes (ascending by id), and the neighbours of
+ * index {@code i} are {@code targets[offsets[i]..offsets[i + 1])} with the matching {@code weights}.
+ * Every cost is undirected, so it is stored once in each direction, and each slot keeps the {@link Cost}
+ * it came from so the costs touching one point can be listed in O(degree).
+ */
+public final class CostGraph {
+
+    public static final CostGraph EMPTY = new CostGraph(new long[0], new int[1], new int[0], new double[0], new Cost[0]);
+
+    private final long[] ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final Cost[] costs;
+
+    private CostGraph(long[] ids, int[] offsets, int[] targets, double[] weights, Cost[] costs) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.costs = costs;
+    }
+
+    public static CostGraph build(Collection<Cost> costs) {
+        if (costs.isEmpty()) {
+            return EMPTY;
+        }
+
+        long[] endpoints = new long[costs.size() * 2];
+        int position = 0;
+        for (Cost cost : costs) {
+            endpoints[position++] = cost.getIdA();
+            endpoints[position++] = cost.getIdB();
+        }
+        long[] ids = distinctSorted(endpoints);
+
+        int[] offsets = new int[ids.length + 1];
+        for (Cost cost : costs) {
+            offsets[Arrays.binarySearch(ids, cost.getIdA()) + 1]++;
+            offsets[Arrays.binarySearch(ids, cost.getIdB()) + 1]++;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] targets = new int[offsets[ids.length]];
+        double[] weights = new double[targets.length];
+        Cost[] edgeCosts = new Cost[targets.length];
+        int[] next = Arrays.copyOf(offsets, ids.length);
+        for (Cost cost : costs) {
+            int a = Arrays.binarySearch(ids, cost.getIdA());
+            int b = Arrays.binarySearch(ids, cost.getIdB());
+            edgeCosts[next[a]] = cost;
+            targets[next[a]] = b;
+            weights[next[a]++] = cost.getAmount();
+            edgeCosts[next[b]] = cost;
+            targets[next[b]] = a;
+            weights[next[b]++] = cost.getAmount();
+        }
+        return new CostGraph(ids, offsets, targets, weights, edgeCosts);
+    }
+
+    private static long[] distinctSorted(long[] values) {
+        Arrays.sort(values);
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[size++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /** Dense index of a point of sale id, or -1 when the point has no costs. */
+    public int indexOf(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? index : -1;
+    }
+
+    public long idOf(int index) {
+        return ids[index];
+    }
+
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int firstEdge(int index) {
+        return offsets[index];
+    }
+
+    public int lastEdge(int index) {
+        return offsets[index + 1];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    /** The cost behind an edge, with its endpoints in the order it was saved. */
+    public Cost cost(int edge) {
+        return costs[edge];
+    }
+}
@@ -0,0 +1,253 @@
+package com.microservice.pointsalecost.graph;
+
+import com.microservice.pointsalecost.enums.SearchMode;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.CostID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Long-lived, in-process cost network. Mutations only update the cost map and mark the {@link CostGraph} snapshot
+ * stale; the next read rebuilds it once for every write since and publishes it through a volatile reference, so a
+ * burst of single cost writes costs one rebuild (and one landmark or hierarchy rebuild after it) instead of one
+ * each. Path queries only lock when they find the snapshot stale and never see a half-built graph.
+ * <p>
+ * The costs are loaded from the database in the background. Writes made before that load is published are
+ * recorded and replayed on top of the loaded costs, so the warm-up never overwrites them. Readers check {@link #isLoaded()}
+ * and go to the database until the first load is published.
+ * <p>
+ * Writes run on every cost save, delete and import. They are serialized by a
+ * {@link ReentrantLock} rather than a monitor, so virtual threads waiting for a rebuild do not pin their carriers,
+ * and the listeners run after the lock is released: ComponentIndex takes its own lock and the contraction
+ * hierarchy schedules a rebuild, neither of which may hold up the next writer.
+ */
+@Component
+public class CostGraphEngine {
+
+    private final SearchMode defaultSearchMode;
+    private final int landmarkCount;
+    private final long[] landmarkIds;
+
+    // One entry per unordered pair of points, the last written cost wins.
+    private Map<CostID, Cost> edges = new HashMap<>();
+    // Writes made before the first load, replayed on top of it; null once it is published.
+    private List<Consumer<Map<CostID, Cost>>> writesBeforeLoad = new ArrayList<>();
+    private volatile boolean loaded;
+    private volatile CostGraph graph = CostGraph.EMPTY;
+    // Set by writes, cleared by the read that rebuilds the snapshot.
+    private volatile boolean stale;
+    private volatile Landmarks landmarks;
+    private final ReentrantLock landmarksLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Cost>> additionListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> removalListeners = new CopyOnWriteArrayList<>();
+
+    public CostGraphEngine() {
+        this(SearchMode.DIJKSTRA, 8, new long[0]);
+    }
+
+    @Autowired
+    public CostGraphEngine(@Value("${cost.search.mode:DIJKSTRA}") SearchMode defaultSearchMode,
+                           @Value("${cost.search.alt.landmarks:8}") int landmarkCount,
+                           @Value("${cost.search.alt.landmark-ids:}") long[] landmarkIds) {
+        this.defaultSearchMode = defaultSearchMode;
+        this.landmarkCount = landmarkCount;
+        this.landmarkIds = landmarkIds;
+    }
+
+    /** Replaces the costs with the loaded ones, with the writes made before the first load replayed on top. */
+    public void load(Collection<Cost> costs) {
+        Map<CostID, Cost> loadedEdges = new HashMap<>();
+        costs.forEach(cost -> loadedEdges.put(edgeKey(cost.getIdA(), cost.getIdB()), cost));
+        writeLock.lock();
+        try {
+            if (writesBeforeLoad != null) {
+                writesBeforeLoad.forEach(write -> write.accept(loadedEdges));
+                writesBeforeLoad = null;
+            }
+            edges = loadedEdges;
+            graph = CostGraph.build(edges.values());
+            stale = false;
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+        changeListeners.forEach(Runnable::run);
+        removalListeners.forEach(Runnable::run);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void addCost(Cost cost) {
+        writeLock.lock();
+        try {
+            write(map -> map.put(edgeKey(cost.getIdA(), cost.getIdB()), cost));
+            stale = true;
+        } finally {
+            writeLock.unlock();
+        }
+        changeListeners.forEach(Runnable::run);
+        additionListeners.forEach(listener -> listener.accept(cost));
+    }
+
+    /** Adds many costs with a single change notification. */
+    public void addCosts(Collection<Cost> costs) {
+        if (costs.isEmpty()) {
+            return;
+        }
+        List<Cost> added = List.copyOf(costs);
+        writeLock.lock();
+        try {
+            write(map -> added.forEach(cost -> map.put(edgeKey(cost.getIdA(), cost.getIdB()), cost)));
+            stale = true;
+        } finally {
+            writeLock.unlock();
+        }
+        changeListeners.forEach(Runnable::run);
+        added.forEach(cost -> additionListeners.forEach(listener -> listener.accept(cost)));
+    }
+
+    public void removeCost(Long idA, Long idB) {
+        CostID key = edgeKey(idA, idB);
+        boolean present;
+        writeLock.lock();
+        try {
+            present = edges.containsKey(key);
+            write(map -> map.remove(key));
+            if (present) {
+                stale = true;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (present) {
+            changeListeners.forEach(Runnable::run);
+            removalListeners.forEach(Runnable::run);
+        }
+    }
+
+    /** Removes many costs, given as pairs of point ids in either order, with a single change notification. */
+    public void removeCosts(Collection<CostID> pairs) {
+        List<CostID> keys = pairs.stream().map(pair -> edgeKey(pair.getIdA(), pair.getIdB())).toList();
+        boolean present;
+        writeLock.lock();
+        try {
+            present = keys.stream().anyMatch(edges::containsKey);
+            write(map -> keys.forEach(map::remove));
+            if (present) {
+                stale = true;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (present) {
+            changeListeners.forEach(Runnable::run);
+            removalListeners.forEach(Runnable::run);
+        }
+    }
+
+    private void write(Consumer<Map<CostID, Cost>> write) {
+        write.accept(edges);
+        if (writesBeforeLoad != null) {
+            writesBeforeLoad.add(write);
+        }
+    }
+
+    /** The current snapshot, rebuilt first when costs were written since the last one. */
+    public CostGraph snapshot() {
+        if (stale) {
+            writeLock.lock();
+            try {
+                if (stale) {
+                    graph = CostGraph.build(edges.values());
+                    stale = false;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return graph;
+    }
+
+    /** Costs touching one point in the current snapshot, empty when the point has none. */
+    public List<Cost> costsOf(long id) {
+        CostGraph current = snapshot();
+        int index = current.indexOf(id);
+        if (index < 0) {
+            return List.of();
+        }
+        List<Cost> costs = new ArrayList<>(current.lastEdge(index) - current.firstEdge(index));
+        for (int edge = current.firstEdge(index); edge < current.lastEdge(index); edge++) {
+            costs.add(current.cost(edge));
+        }
+        return costs;
+    }
+
+    /** Runs the listener after every change, on the writing thread and outside the write lock; {@link #snapshot()} includes it. */
+    public void onChange(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /** Runs the listener with every cost added, after the change. */
+    public void onCostAdded(Consumer<Cost> listener) {
+        additionListeners.add(listener);
+    }
+
+    /** Runs the listener after a change that may have lost costs (removals and reloads). */
+    public void onCostsRemoved(Runnable listener) {
+        removalListeners.add(listener);
+    }
+
+    public SearchMode searchMode(SearchMode requested) {
+        return requested == null ? defaultSearchMode : requested;
+    }
+
+    public PathResult findPath(Long from, Long to, LongPredicate isActive) {
+        return findPath(from, to, isActive, defaultSearchMode, null);
+    }
+
+    public PathResult findPath(Long from, Long to, LongPredicate isActive, SearchMode mode, SearchStats stats) {
+        CostGraph current = snapshot();
+        return switch (searchMode(mode)) {
+            case DIJKSTRA -> DijkstraSearch.search(current, from, to, isActive, stats);
+            // Hierarchies are served by ContractionHierarchyManager, this is the answer while none is current.
+            case BIDIRECTIONAL, CH -> BidirectionalSearch.search(current, from, to, isActive, stats);
+            case ALT -> AltSearch.search(landmarksFor(current), from, to, isActive, stats);
+        };
+    }
+
+    // Landmarks belong to one snapshot, the first ALT query after a change computes them again.
+    private Landmarks landmarksFor(CostGraph current) {
+        Landmarks cached = landmarks;
+        if (cached != null && cached.graph() == current) {
+            return cached;
+        }
+        landmarksLock.lock();
+        try {
+            if (landmarks == null || landmarks.graph() != current) {
+                landmarks = Landmarks.select(current, landmarkCount, landmarkIds);
+            }
+            return landmarks;
+        } finally {
+            landmarksLock.unlock();
+        }
+    }
+
+    private static CostID edgeKey(Long idA, Long idB) {
+        return idA < idB ? new CostID(idA, idB) : new CostID(idB, idA);
+    }
+}
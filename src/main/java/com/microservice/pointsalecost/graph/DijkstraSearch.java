@@ -0,0 +1,127 @@
+package com.microservice.pointsalecost.graph;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongPredicate;
+
+/**
+ * Dijkstra over a {@link CostGraph}, point to point or single source. Points rejected by the predicate are never
+ * entered, so inactive points of sale cannot be part of a path.
+ */
+public final class DijkstraSearch {
+
+    private DijkstraSearch() {
+    }
+
+    public static PathResult search(CostGraph graph, long from, long to, LongPredicate isActive, SearchStats stats) {
+        int source = graph.indexOf(from);
+        int target = graph.indexOf(to);
+        if (source < 0 || target < 0) {
+            return from == to ? new PathResult(new long[]{from}, 0.0) : null;
+        }
+
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+        IndexedHeap queue = workspace.heap();
+        workspace.set(source, 0.0, -1);
+        queue.offer(source, 0.0);
+
+        int settled = 0;
+        try {
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                settled++;
+                if (node == target) {
+                    return toPathResult(graph, workspace, target, workspace.cost(target));
+                }
+                double nodeCost = workspace.cost(node);
+                for (int edge = graph.firstEdge(node); edge < graph.lastEdge(node); edge++) {
+                    int next = graph.target(edge);
+                    double newCost = nodeCost + graph.weight(edge);
+                    if (newCost < workspace.cost(next) && isActive.test(graph.idOf(next))) {
+                        workspace.set(next, newCost, node);
+                        queue.offer(next, newCost);
+                    }
+                }
+            }
+            return null;
+        } finally {
+            if (stats != null) {
+                stats.settled(settled);
+            }
+        }
+    }
+
+    /**
+     * Single-source search that stops once every point in {@code targets} is settled,
+     * or explores everything reachable when {@code targets} is {@code null}. When targets are given,
+     * only their costs are final in the returned tree.
+     */
+    public static ShortestPathTree tree(CostGraph graph, long from, LongPredicate isActive, long[] targets) {
+        double[] minimumCost = new double[graph.nodeCount()];
+        int[] previous = new int[graph.nodeCount()];
+        Arrays.fill(minimumCost, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+
+        int source = graph.indexOf(from);
+        if (source < 0) {
+            return new ShortestPathTree(graph, from, minimumCost, previous);
+        }
+
+        boolean[] pending = null;
+        int remaining = Integer.MAX_VALUE;
+        if (targets != null) {
+            pending = new boolean[graph.nodeCount()];
+            remaining = 0;
+            for (long target : targets) {
+                int index = graph.indexOf(target);
+                if (index >= 0 && !pending[index]) {
+                    pending[index] = true;
+                    remaining++;
+                }
+            }
+        }
+
+        // The tree keeps its own arrays, only the frontier comes from the workspace.
+        IndexedHeap queue = SearchWorkspace.forward(graph.nodeCount()).heap();
+        minimumCost[source] = 0.0;
+        queue.offer(source, 0.0);
+
+        while (!queue.isEmpty() && remaining > 0) {
+            int node = queue.poll();
+            if (pending != null && pending[node]) {
+                pending[node] = false;
+                remaining--;
+            }
+            for (int edge = graph.firstEdge(node); edge < graph.lastEdge(node); edge++) {
+                int next = graph.target(edge);
+                double newCost = minimumCost[node] + graph.weight(edge);
+                if (newCost < minimumCost[next] && isActive.test(graph.idOf(next))) {
+                    minimumCost[next] = newCost;
+                    previous[next] = node;
+                    queue.offer(next, newCost);
+                }
+            }
+        }
+        return new ShortestPathTree(graph, from, minimumCost, previous);
+    }
+
+    static PathResult toPathResult(CostGraph graph, SearchWorkspace workspace, int target, double totalCost) {
+        return toPathResult(graph, workspace::previous, target, totalCost);
+    }
+
+    static PathResult toPathResult(CostGraph graph, int[] previous, int target, double totalCost) {
+        return toPathResult(graph, index -> previous[index], target, totalCost);
+    }
+
+    private static PathResult toPathResult(CostGraph graph, IntUnaryOperator previous, int target, double totalCost) {
+        int length = 0;
+        for (int current = target; current != -1; current = previous.applyAsInt(current)) {
+            length++;
+        }
+        long[] path = new long[length];
+        for (int current = target; current != -1; current = previous.applyAsInt(current)) {
+            path[--length] = graph.idOf(current);
+        }
+        return new PathResult(path, totalCost);
+    }
+}
@@ -0,0 +1,11 @@
+package com.microservice.pointsalecost.graph;
+
+/**
+ * Priority queue entry of the path searches: a dense node index and its priority.
+ */
+record Frontier(int node, double amount) implements Comparable<Frontier> {
+    @Override
+    public int compareTo(Frontier other) {
+        return Double.compare(amount, other.amount);
+    }
+}
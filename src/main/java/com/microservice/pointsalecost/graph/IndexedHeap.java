@@ -0,0 +1,109 @@
+package com.microservice.pointsalecost.graph;
+
+import java.util.Arrays;
+
+/**
+ * Indexed 4-ary min-heap of dense node indexes keyed by a double, with decrease-key. Each node is in the heap at
+ * most once, so searches never poll stale entries, and nothing is allocated once the arrays have grown to the
+ * graph size.
+ */
+final class IndexedHeap {
+
+    private static final int ARITY = 4;
+
+    private int[] heap = new int[0];
+    private double[] keys = new double[0];
+    // Slot of every node in the heap, -1 when it is not queued.
+    private int[] position = new int[0];
+    private int size;
+
+    void reset(int nodes) {
+        if (position.length < nodes) {
+            heap = new int[nodes];
+            keys = new double[nodes];
+            position = new int[nodes];
+            Arrays.fill(position, -1);
+        } else {
+            for (int slot = 0; slot < size; slot++) {
+                position[heap[slot]] = -1;
+            }
+        }
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /** Inserts the node, or lowers its key when it is already queued with a higher one. */
+    void offer(int node, double key) {
+        int slot = position[node];
+        if (slot < 0) {
+            slot = size++;
+        } else if (key >= keys[node]) {
+            return;
+        }
+        keys[node] = key;
+        siftUp(node, slot);
+    }
+
+    int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(last, 0);
+        }
+        return top;
+    }
+
+    private void siftUp(int node, int slot) {
+        double key = keys[node];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / ARITY;
+            int parent = heap[parentSlot];
+            if (keys[parent] <= key) {
+                break;
+            }
+            place(parent, slot);
+            slot = parentSlot;
+        }
+        place(node, slot);
+    }
+
+    private void siftDown(int node, int slot) {
+        double key = keys[node];
+        while (true) {
+            int firstChild = slot * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int smallest = firstChild;
+            int lastChild = Math.min(firstChild + ARITY, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (keys[heap[child]] < keys[heap[smallest]]) {
+                    smallest = child;
+                }
+            }
+            if (keys[heap[smallest]] >= key) {
+                break;
+            }
+            place(heap[smallest], slot);
+            slot = smallest;
+        }
+        place(node, slot);
+    }
+
+    private void place(int node, int slot) {
+        heap[slot] = node;
+        position[node] = slot;
+    }
+}
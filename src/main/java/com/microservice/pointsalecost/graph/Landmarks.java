@@ -0,0 +1,121 @@
+package com.microservice.pointsalecost.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact costs from a few landmark points to every point of one {@link CostGraph} snapshot. By the triangle
+ * inequality {@code |d(L, t) - d(L, v)|} never exceeds {@code d(v, t)}, which gives ALT an admissible heuristic.
+ * Distances are computed over every point, inactive ones included: removing points can only make real
+ * costs larger, so the bound stays valid.
+ */
+final class Landmarks {
+
+    private final CostGraph graph;
+    private final int count;
+    // Node-major, the distances of node v are [v * count, (v + 1) * count)
+    private final double[] distances;
+
+    private Landmarks(CostGraph graph, int count, double[] distances) {
+        this.graph = graph;
+        this.count = count;
+        this.distances = distances;
+    }
+
+    /**
+     * Uses the preferred landmark ids found in the graph, then adds the point farthest from every landmark
+     * chosen so far until {@code count} landmarks exist.
+     */
+    static Landmarks select(CostGraph graph, int count, long[] preferredIds) {
+        int nodes = graph.nodeCount();
+        List<double[]> rows = new ArrayList<>();
+        double[] nearestLandmark = new double[nodes];
+        Arrays.fill(nearestLandmark, Double.POSITIVE_INFINITY);
+
+        for (long id : preferredIds) {
+            int index = graph.indexOf(id);
+            if (index >= 0 && nearestLandmark[index] != 0.0) {
+                addRow(graph, index, rows, nearestLandmark);
+            }
+        }
+
+        if (rows.isEmpty() && nodes > 0 && count > 0) {
+            // Start from the point farthest from an arbitrary one, it lies on the rim of the network.
+            double[] fromFirst = costsFrom(graph, 0);
+            addRow(graph, farthest(fromFirst), rows, nearestLandmark);
+        }
+        while (rows.size() < Math.min(count, nodes)) {
+            int next = farthest(nearestLandmark);
+            if (nearestLandmark[next] == 0.0) {
+                break;
+            }
+            addRow(graph, next, rows, nearestLandmark);
+        }
+
+        int selected = rows.size();
+        double[] distances = new double[nodes * selected];
+        for (int landmark = 0; landmark < selected; landmark++) {
+            double[] row = rows.get(landmark);
+            for (int node = 0; node < nodes; node++) {
+                distances[node * selected + landmark] = row[node];
+            }
+        }
+        return new Landmarks(graph, selected, distances);
+    }
+
+    private static void addRow(CostGraph graph, int landmark, List<double[]> rows, double[] nearestLandmark) {
+        double[] row = costsFrom(graph, landmark);
+        for (int node = 0; node < row.length; node++) {
+            nearestLandmark[node] = Math.min(nearestLandmark[node], row[node]);
+        }
+        rows.add(row);
+    }
+
+    private static double[] costsFrom(CostGraph graph, int index) {
+        ShortestPathTree tree = DijkstraSearch.tree(graph, graph.idOf(index), id -> true, null);
+        double[] row = new double[graph.nodeCount()];
+        for (int node = 0; node < row.length; node++) {
+            row[node] = tree.totalCostAt(node);
+        }
+        return row;
+    }
+
+    // Unreached points count as the farthest, so other components get landmarks too.
+    private static int farthest(double[] costs) {
+        int farthest = 0;
+        for (int node = 1; node < costs.length; node++) {
+            if (costs[node] > costs[farthest]) {
+                farthest = node;
+            }
+        }
+        return farthest;
+    }
+
+    CostGraph graph() {
+        return graph;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /** Lower bound of the cost between two dense indexes, positive infinity when they are not connected. */
+    double lowerBound(int node, int target) {
+        double bound = 0.0;
+        int nodeOffset = node * count;
+        int targetOffset = target * count;
+        for (int landmark = 0; landmark < count; landmark++) {
+            double toNode = distances[nodeOffset + landmark];
+            double toTarget = distances[targetOffset + landmark];
+            if (Double.isInfinite(toNode) || Double.isInfinite(toTarget)) {
+                if (Double.isInfinite(toNode) != Double.isInfinite(toTarget)) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                continue;
+            }
+            bound = Math.max(bound, Math.abs(toTarget - toNode));
+        }
+        return bound;
+    }
+}
@@ -0,0 +1,7 @@
+package com.microservice.pointsalecost.graph;
+
+/**
+ * Point of sale ids along a minimum cost path, from origin to destination, and its total cost.
+ */
+public record PathResult(long[] path, double totalCost) {
+}
@@ -0,0 +1,17 @@
+package com.microservice.pointsalecost.graph;
+
+/**
+ * Counters filled in by a path search, used to compare the work done by each {@code SearchMode}.
+ */
+public final class SearchStats {
+
+    private long settledNodes;
+
+    void settled(int nodes) {
+        settledNodes += nodes;
+    }
+
+    public long settledNodes() {
+        return settledNodes;
+    }
+}
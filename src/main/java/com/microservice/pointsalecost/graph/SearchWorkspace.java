@@ -0,0 +1,85 @@
+package com.microservice.pointsalecost.graph;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread scratch space of the point to point searches: costs, predecessors and the frontier heap, sized to
+ * the dense index space and reused across queries. Values are tagged with the query they were written in, so a
+ * new query starts in constant time instead of refilling the arrays. Bidirectional searches take one workspace
+ * per direction.
+ */
+final class SearchWorkspace {
+
+    private static final ThreadLocal<SearchWorkspace> FORWARD = ThreadLocal.withInitial(SearchWorkspace::new);
+    private static final ThreadLocal<SearchWorkspace> BACKWARD = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    private final IndexedHeap heap = new IndexedHeap();
+    private double[] cost = new double[0];
+    private int[] previous = new int[0];
+    private int[] visited = new int[0];
+    private double[] potential = new double[0];
+    private int[] estimated = new int[0];
+    private int query;
+
+    private SearchWorkspace() {
+    }
+
+    static SearchWorkspace forward(int nodes) {
+        return FORWARD.get().reset(nodes);
+    }
+
+    static SearchWorkspace backward(int nodes) {
+        return BACKWARD.get().reset(nodes);
+    }
+
+    private SearchWorkspace reset(int nodes) {
+        if (cost.length < nodes) {
+            cost = new double[nodes];
+            previous = new int[nodes];
+            visited = new int[nodes];
+            potential = new double[nodes];
+            estimated = new int[nodes];
+            query = 0;
+        }
+        if (++query == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            Arrays.fill(estimated, 0);
+            query = 1;
+        }
+        heap.reset(nodes);
+        return this;
+    }
+
+    IndexedHeap heap() {
+        return heap;
+    }
+
+    /** Cost reached so far, positive infinity for points not seen in this query. */
+    double cost(int node) {
+        return visited[node] == query ? cost[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /** Predecessor on the best path so far, -1 for the origin and points not seen in this query. */
+    int previous(int node) {
+        return visited[node] == query ? previous[node] : -1;
+    }
+
+    void set(int node, double nodeCost, int previousNode) {
+        visited[node] = query;
+        cost[node] = nodeCost;
+        previous[node] = previousNode;
+    }
+
+    boolean hasPotential(int node) {
+        return estimated[node] == query;
+    }
+
+    double potential(int node) {
+        return potential[node];
+    }
+
+    void setPotential(int node, double value) {
+        estimated[node] = query;
+        potential[node] = value;
+    }
+}
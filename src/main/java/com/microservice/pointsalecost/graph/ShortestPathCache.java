@@ -0,0 +1,152 @@
+package com.microservice.pointsalecost.graph;
+
+import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of minimum cost paths keyed by unordered pair and graph version.
+ * Writers bump the version after changing the graph, so a route computed against an older graph
+ * is stored under a version nobody asks for anymore and simply ages out.
+ * The LRU map is guarded by a {@link ReentrantLock} so contending virtual threads do not pin their carriers.
+ */
+@Component
+public class ShortestPathCache {
+
+    private static final String CACHE_NAME = "shortestPath";
+
+    private final int maxSize;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<PairKey, CachedPath> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ShortestPathCache(@Value("${cost.path-cache.max-size:10000}") int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PairKey, CachedPath> eldest) {
+                boolean evict = size() > ShortestPathCache.this.maxSize;
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tags("cache", CACHE_NAME).register(meterRegistry);
+        Gauge.builder("cache.size", this, ShortestPathCache::size)
+                .tags("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached path between both points, computing and storing it on a miss.
+     * A {@code null} result (no path) is cached as well.
+     */
+    public CostMinimumDTO get(Long idA, Long idB, Supplier<CostMinimumDTO> loader) {
+        PairKey key = PairKey.of(idA, idB, version.get());
+        boolean reversed = idA > idB;
+
+        CachedPath cached = lookup(key);
+        if (cached != null) {
+            return reversed ? reverse(cached.costMinimumDTO()) : cached.costMinimumDTO();
+        }
+        CostMinimumDTO costMinimumDTO = loader.get();
+        store(key, new CachedPath(reversed ? reverse(costMinimumDTO) : costMinimumDTO));
+        return costMinimumDTO;
+    }
+
+    /** Reactive form of {@link #get(Long, Long, Supplier)} over the same entries; an empty result (no path) is cached as well. */
+    public Mono<CostMinimumDTO> get(Long idA, Long idB, Mono<CostMinimumDTO> loader) {
+        boolean reversed = idA > idB;
+        return Mono.defer(() -> {
+            PairKey key = PairKey.of(idA, idB, version.get());
+            CachedPath cached = lookup(key);
+            if (cached != null) {
+                return Mono.justOrEmpty(reversed ? reverse(cached.costMinimumDTO()) : cached.costMinimumDTO());
+            }
+            return loader.map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(result -> store(key, new CachedPath(reversed ? reverse(result.orElse(null)) : result.orElse(null))))
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    private CachedPath lookup(PairKey key) {
+        CachedPath cached;
+        lock.lock();
+        try {
+            cached = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        (cached != null ? hits : misses).incrementAndGet();
+        return cached;
+    }
+
+    private void store(PairKey key, CachedPath path) {
+        lock.lock();
+        try {
+            entries.put(key, path);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Must be called after the graph or the active points change. */
+    public void bumpVersion() {
+        version.incrementAndGet();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static CostMinimumDTO reverse(CostMinimumDTO costMinimumDTO) {
+        if (costMinimumDTO == null) {
+            return null;
+        }
+        List<PointOfSaleResponseDTO> path = new ArrayList<>(costMinimumDTO.pointOfSaleResponse());
+        Collections.reverse(path);
+        return new CostMinimumDTO(path, costMinimumDTO.totalCost());
+    }
+
+    private record PairKey(long low, long high, long version) {
+        static PairKey of(long idA, long idB, long version) {
+            return idA < idB ? new PairKey(idA, idB, version) : new PairKey(idB, idA, version);
+        }
+    }
+
+    private record CachedPath(CostMinimumDTO costMinimumDTO) {}
+}
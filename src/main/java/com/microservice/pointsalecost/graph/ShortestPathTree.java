@@ -0,0 +1,61 @@
+package com.microservice.pointsalecost.graph;
+
+/**
+ * Result of one single-source Dijkstra run: the minimum cost and predecessor of every point reached from the source.
+ */
+public final class ShortestPathTree {
+
+    private final CostGraph graph;
+    private final long source;
+    private final double[] minimumCost;
+    private final int[] previous;
+
+    ShortestPathTree(CostGraph graph, long source, double[] minimumCost, int[] previous) {
+        this.graph = graph;
+        this.source = source;
+        this.minimumCost = minimumCost;
+        this.previous = previous;
+    }
+
+    public long source() {
+        return source;
+    }
+
+    public CostGraph graph() {
+        return graph;
+    }
+
+    /** Minimum cost from the source to a dense index, or positive infinity when it was not reached. */
+    public double totalCostAt(int index) {
+        return minimumCost[index];
+    }
+
+    /** Dense index of the point preceding {@code index} on its path, or -1 for the source and unreached points. */
+    public int previousAt(int index) {
+        return previous[index];
+    }
+
+    public boolean isReachable(long id) {
+        return id == source || !Double.isInfinite(totalCost(id));
+    }
+
+    public double totalCost(long id) {
+        if (id == source) {
+            return 0.0;
+        }
+        int index = graph.indexOf(id);
+        return index < 0 ? Double.POSITIVE_INFINITY : minimumCost[index];
+    }
+
+    /** Path from the source to the given point, or {@code null} when it is unreachable. */
+    public PathResult pathTo(long id) {
+        if (id == source) {
+            return new PathResult(new long[]{source}, 0.0);
+        }
+        int index = graph.indexOf(id);
+        if (index < 0 || Double.isInfinite(minimumCost[index])) {
+            return null;
+        }
+        return DijkstraSearch.toPathResult(graph, previous, index, minimumCost[index]);
+    }
+}
@@ -14,6 +14,7 @@ public interface CostMapper {
     CostMapper INSTANCE = Mappers.getMapper(CostMapper.class);
 
     @Mapping(target = "id", source = "costRequestDTO", qualifiedByName = "mapToCostID")
+    @Mapping(target = "lastModified", ignore = true)
     Cost toEntity(CostRequestDTO costRequestDTO);
 
     @Mapping(target = "idA", expression = "java(cost.getId().getIdA())")
@@ -4,6 +4,7 @@ import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleRequestDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
 import com.microservice.pointsalecost.models.PointOfSale;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring")
@@ -12,5 +13,8 @@ public interface PointOfSaleMapper {
 
     PointOfSaleResponseDTO toPointOfSaleResponseDTO(PointOfSale pointOfSale);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "active", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     PointOfSale toEntity(PointOfSaleRequestDTO pointOfSaleRequestDTO);
 }
\ No newline at end of file
@@ -4,24 +4,39 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "Cost")
+//The primary key (idA, idB) serves lookups by idA, the index serves the ones by idB.
+@Table(name = "Cost", indexes = @Index(name = "idx_cost_id_b", columnList = "idB, idA"))
 public class Cost implements Serializable {
 
     @EmbeddedId
     private CostID id;
     private Double amount;
 
+    @UpdateTimestamp
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Instant lastModified;
+
+    public Cost(CostID id, Double amount) {
+        this.id = id;
+        this.amount = amount;
+    }
+
     public Cost(Long idA, Long idB, Double amount) {
         this.id = new CostID(idA, idB);
         this.amount = amount;
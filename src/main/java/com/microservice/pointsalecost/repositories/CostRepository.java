@@ -1,17 +1,55 @@
 package com.microservice.pointsalecost.repositories;
 
+import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
 import com.microservice.pointsalecost.models.Cost;
 import com.microservice.pointsalecost.models.CostID;
-import io.lettuce.core.dynamic.annotation.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CostRepository extends JpaRepository<Cost, CostID> {
 
-    @Query("SELECT c FROM Cost c WHERE c.id.idA = :idA OR c.id.idB = :idB")
-    List<Cost> findByIdAOrIdB(@Param("idA") Long idA, @Param("idB") Long idB);
-}
\ No newline at end of file
+    //Every cost touching any of the points, read as DTOs in one query; a single point is passed as a one element set.
+    //Each branch of the UNION ALL uses its own index (the primary key for idA, idx_cost_id_b for idB) where an OR would
+    //scan the table. A cost between two of the points, or from a point to itself, is only taken by the idA branch.
+    @Query("""
+            SELECT new com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO(c.id.idA, c.id.idB, c.amount) FROM Cost c WHERE c.id.idA IN :ids
+            UNION ALL
+            SELECT new com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO(c.id.idA, c.id.idB, c.amount) FROM Cost c WHERE c.id.idB IN :ids AND c.id.idA NOT IN :ids""")
+    List<CostResponseDTO> findDirectCostsOfAll(@Param("ids") Collection<Long> ids);
+
+    //Keyset page: the costs after (idA, idB) in primary key order.
+    @Query("SELECT c FROM Cost c WHERE c.id.idA > :idA OR (c.id.idA = :idA AND c.id.idB > :idB) ORDER BY c.id.idA, c.id.idB")
+    List<Cost> findPageAfter(@Param("idA") Long idA, @Param("idB") Long idB, Limit limit);
+
+    //Export cursors: rows are fetched from the database as the stream is consumed, never loaded as a whole.
+    //Only costs between two active points, joined in the query so the export does not depend on the warm-up.
+    @Query("""
+            SELECT c FROM Cost c
+            JOIN PointOfSale a ON a.id = c.id.idA
+            JOIN PointOfSale b ON b.id = c.id.idB
+            WHERE a.active = true AND b.active = true
+            ORDER BY c.id.idA, c.id.idB""")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Cost> streamBetweenActivePoints();
+
+    @Query("""
+            SELECT c FROM Cost c
+            JOIN PointOfSale a ON a.id = c.id.idA
+            JOIN PointOfSale b ON b.id = c.id.idB
+            WHERE a.active = true AND b.active = true AND c.lastModified >= :since
+            ORDER BY c.id.idA, c.id.idB""")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Cost> streamBetweenActivePointsModifiedSince(@Param("since") Instant since);
+}
@@ -1,7 +1,37 @@
 package com.microservice.pointsalecost.repositories;
 
 import com.microservice.pointsalecost.models.PointOfSale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface PointOfSaleRepository extends JpaRepository<PointOfSale, Long> {
-}
\ No newline at end of file
+
+    //Keyset page: the points of sale after the given id, in id order.
+    List<PointOfSale> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<PointOfSale> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT p.id FROM PointOfSale p")
+    List<Long> findAllIds();
+
+    @Query("SELECT p.id FROM PointOfSale p WHERE p.active = true")
+    List<Long> findActiveIds();
+
+    //Export cursors: rows are fetched from the database as the stream is consumed, never loaded as a whole.
+    @Query("SELECT p FROM PointOfSale p WHERE p.active = true ORDER BY p.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<PointOfSale> streamActive();
+
+    @Query("SELECT p FROM PointOfSale p WHERE p.lastModified >= :since ORDER BY p.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<PointOfSale> streamModifiedSince(@Param("since") Instant since);
+}
@@ -0,0 +1,11 @@
+package com.microservice.pointsalecost.services;
+
+import com.microservice.pointsalecost.dtos.CostDTO.CostImportReportDTO;
+import com.microservice.pointsalecost.enums.DataFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CostImportService {
+    CostImportReportDTO importCosts(InputStream input, DataFormat format) throws IOException;
+}
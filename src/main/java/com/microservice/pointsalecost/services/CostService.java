@@ -1,8 +1,7 @@
 package com.microservice.pointsalecost.services;
 
-import com.microservice.pointsalecost.dtos.CostDTO.CostRequestDTO;
-import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
-import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.*;
+import com.microservice.pointsalecost.enums.SearchMode;
 
 import java.util.List;
 
@@ -11,4 +10,7 @@ public interface CostService {
     void delete(Long idA, Long idB);
     List<CostResponseDTO> directCostFromOnePoint(Long id);
     CostMinimumDTO minimumCostPath(Long idA, Long idB);
+    CostMinimumDTO minimumCostPath(Long idA, Long idB, SearchMode mode);
+    CostTreeDTO minimumCostTree(Long id, boolean compact);
+    List<CostBatchResultDTO> minimumCostPathBatch(List<CostPairDTO> pairs);
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.microservice.pointsalecost.services.Impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.NetworkSync;
+import com.microservice.pointsalecost.dtos.CostDTO.CostImportErrorDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostImportReportDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostRequestDTO;
+import com.microservice.pointsalecost.enums.CacheType;
+import com.microservice.pointsalecost.enums.DataFormat;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.CostID;
+import com.microservice.pointsalecost.repositories.CostRepository;
+import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
+import com.microservice.pointsalecost.services.CostImportService;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams a CSV ({@code idA,idB,amount}, optional header) or NDJSON file of new costs into the database in one
+ * transaction. Rows are checked against one preloaded set of point ids and deduplicated in memory, existing
+ * costs are looked up once per batch, and valid rows are persisted in JDBC batches. Redis and the graph of every
+ * instance are updated once, after the commit. Invalid rows are skipped and reported with their line number.
+ */
+@Service
+public class CostImportServiceImpl implements CostImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final PointOfSaleRepository pointOfSaleRepository;
+    private final CostRepository costRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final NearCache nearCache;
+    private final NetworkSync networkSync;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public CostImportServiceImpl(PointOfSaleRepository pointOfSaleRepository, CostRepository costRepository, EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager, NearCache nearCache, NetworkSync networkSync,
+                                 ObjectMapper objectMapper,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:1000}") int batchSize) {
+        this.pointOfSaleRepository = pointOfSaleRepository;
+        this.costRepository = costRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nearCache = nearCache;
+        this.networkSync = networkSync;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public CostImportReportDTO importCosts(InputStream input, DataFormat format) throws IOException {
+        Import run = new Import(new HashSet<>(pointOfSaleRepository.findAllIds()));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        IOException[] readFailure = new IOException[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                String line;
+                long lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank() || (lineNumber == 1 && format == DataFormat.CSV && isHeader(line))) {
+                        continue;
+                    }
+                    run.accept(lineNumber, line, format);
+                }
+                run.flush();
+            } catch (IOException e) {
+                readFailure[0] = e;
+                status.setRollbackOnly();
+            }
+        });
+        if (readFailure[0] != null) {
+            throw readFailure[0];
+        }
+
+        //Committed: a single graph rebuild for the whole file, then one batched HMSET per bucket. The graph goes first
+        //so a Redis failure cannot leave committed costs out of it.
+        networkSync.addCosts(run.imported);
+        nearCache.putAll(CacheType.COST, run.imported, cost -> CostServiceImpl.keyGenerator(cost.getIdA(), cost.getIdB()));
+        return new CostImportReportDTO(run.rows, run.imported.size(), run.rejected, run.errors);
+    }
+
+    private static boolean isHeader(String line) {
+        return !line.isEmpty() && !Character.isDigit(line.trim().charAt(0)) && line.trim().charAt(0) != '-';
+    }
+
+    private CostRequestDTO parse(String line, DataFormat format) throws JsonProcessingException {
+        if (format == DataFormat.NDJSON) {
+            return objectMapper.readValue(line, CostRequestDTO.class);
+        }
+        String[] columns = line.split(",", -1);
+        if (columns.length != 3) {
+            throw new IllegalArgumentException("Expected 3 columns idA,idB,amount but found " + columns.length);
+        }
+        return new CostRequestDTO(Long.valueOf(columns[0].trim()), Long.valueOf(columns[1].trim()), Double.valueOf(columns[2].trim()));
+    }
+
+    private final class Import {
+        private final Set<Long> pointIds;
+        private final Set<String> seenPairs = new HashSet<>();
+        private final List<Cost> pending = new ArrayList<>();
+        private final List<Long> pendingLines = new ArrayList<>();
+        private final List<Cost> imported = new ArrayList<>();
+        private final List<CostImportErrorDTO> errors = new ArrayList<>();
+        private long rows;
+        private long rejected;
+
+        Import(Set<Long> pointIds) {
+            this.pointIds = pointIds;
+        }
+
+        void accept(long line, String text, DataFormat format) {
+            rows++;
+            CostRequestDTO row;
+            try {
+                row = parse(text, format);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                reject(line, "Unreadable row: " + e.getMessage());
+                return;
+            }
+            String error = validate(row);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            pending.add(new Cost(row.idA(), row.idB(), row.amount()));
+            pendingLines.add(line);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private String validate(CostRequestDTO row) {
+            if (row.idA() == null || row.idB() == null || row.amount() == null) {
+                return "idA, idB and amount are required.";
+            }
+            if (row.idA().equals(row.idB())) {
+                return "Cannot add a cost between a point and itself.";
+            }
+            if (!Double.isFinite(row.amount())) {
+                return "The amount must be a finite number.";
+            }
+            if (row.amount() < 0) {
+                return "The amount cannot be negative.";
+            }
+            if (!pointIds.contains(row.idA())) {
+                return "Point of Sale A not found: " + row.idA();
+            }
+            if (!pointIds.contains(row.idB())) {
+                return "Point of Sale B not found: " + row.idB();
+            }
+            if (!seenPairs.add(CostServiceImpl.keyGenerator(row.idA(), row.idB()))) {
+                return "Duplicate of an earlier row for the same points.";
+            }
+            return null;
+        }
+
+        //One lookup for the existing costs of the batch, in both directions, then one JDBC batch of inserts.
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<CostID> ids = new ArrayList<>(pending.size() * 2);
+            pending.forEach(cost -> {
+                ids.add(new CostID(cost.getIdA(), cost.getIdB()));
+                ids.add(new CostID(cost.getIdB(), cost.getIdA()));
+            });
+            Set<String> existing = new HashSet<>();
+            costRepository.findAllById(ids).forEach(cost -> existing.add(CostServiceImpl.keyGenerator(cost.getIdA(), cost.getIdB())));
+            for (int i = 0; i < pending.size(); i++) {
+                Cost cost = pending.get(i);
+                if (existing.contains(CostServiceImpl.keyGenerator(cost.getIdA(), cost.getIdB()))) {
+                    reject(pendingLines.get(i), "The cost between these two points already exists in database.");
+                } else {
+                    entityManager.persist(cost);
+                    imported.add(cost);
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            pending.clear();
+            pendingLines.clear();
+        }
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new CostImportErrorDTO(line, message));
+            }
+        }
+    }
+}
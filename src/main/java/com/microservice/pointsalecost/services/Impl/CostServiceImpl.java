@@ -1,9 +1,14 @@
 package com.microservice.pointsalecost.services.Impl;
 
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.NegativeCache;
+import com.microservice.pointsalecost.cache.NetworkSync;
 import com.microservice.pointsalecost.dtos.CostDTO.*;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
 import com.microservice.pointsalecost.enums.CacheType;
+import com.microservice.pointsalecost.enums.SearchMode;
 import com.microservice.pointsalecost.exceptions.*;
+import com.microservice.pointsalecost.graph.*;
 import com.microservice.pointsalecost.mappers.CostMapper;
 import com.microservice.pointsalecost.mappers.PointOfSaleMapper;
 import com.microservice.pointsalecost.models.Cost;
@@ -13,30 +18,53 @@ import com.microservice.pointsalecost.repositories.CostRepository;
 import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
 import com.microservice.pointsalecost.services.CostService;
 import jakarta.transaction.Transactional;
-import org.springframework.data.redis.core.HashOperations;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class CostServiceImpl implements CostService {
 
+    //Ids per adjacency query while the graph is not loaded; the ids are bound three times in the query.
+    private static final int ADJACENCY_CHUNK = 1000;
+
     private final CostRepository costRepository;
     private final PointOfSaleRepository pointOfSaleRepository;
     private final CostMapper costMapper;
     private final PointOfSaleMapper pointOfSaleMapper;
-    private final HashOperations<String, String, PointOfSale> pointOfSaleHashOperations;
-    private final HashOperations<String, String, Cost> costHashOperations;
-
-    public CostServiceImpl(CostRepository costRepository, PointOfSaleRepository pointOfSaleRepository, CostMapper costMapper, PointOfSaleMapper pointOfSaleMapper, RedisTemplate<String, Object> redisTemplate) {
+    private final NearCache nearCache;
+    private final NegativeCache negativeCache;
+    private final CostGraphEngine costGraphEngine;
+    private final ActivePointIndex activePointIndex;
+    private final ShortestPathCache shortestPathCache;
+    private final ContractionHierarchyManager contractionHierarchyManager;
+    private final ComponentIndex componentIndex;
+    private final NetworkSync networkSync;
+    private final ExecutorService graphSearchExecutor;
+
+    public CostServiceImpl(CostRepository costRepository, PointOfSaleRepository pointOfSaleRepository, CostMapper costMapper, PointOfSaleMapper pointOfSaleMapper, NearCache nearCache, NegativeCache negativeCache, CostGraphEngine costGraphEngine, ActivePointIndex activePointIndex, ShortestPathCache shortestPathCache,
+                           ContractionHierarchyManager contractionHierarchyManager, ComponentIndex componentIndex, NetworkSync networkSync, @Qualifier("graphSearchExecutor") ExecutorService graphSearchExecutor) {
         this.costRepository = costRepository;
         this.pointOfSaleRepository = pointOfSaleRepository;
         this.costMapper = costMapper;
         this.pointOfSaleMapper = pointOfSaleMapper;
-        this.pointOfSaleHashOperations = redisTemplate.opsForHash();
-        this.costHashOperations = redisTemplate.opsForHash();
+        this.costGraphEngine = costGraphEngine;
+        this.activePointIndex = activePointIndex;
+        this.shortestPathCache = shortestPathCache;
+        this.contractionHierarchyManager = contractionHierarchyManager;
+        this.componentIndex = componentIndex;
+        this.networkSync = networkSync;
+        this.graphSearchExecutor = graphSearchExecutor;
+        this.nearCache = nearCache;
+        this.negativeCache = negativeCache;
     }
 
     @Transactional
@@ -57,8 +85,9 @@ public class CostServiceImpl implements CostService {
         Cost cost = costMapper.toEntity(costRequestDTO);
         cost.setId(costId);
         String key = keyGenerator(costRequestDTO.idA(), costRequestDTO.idB());
-        costHashOperations.put(CacheType.COST.getValues(), key, cost);
+        nearCache.put(CacheType.COST, key, cost);
         Cost saved = costRepository.save(cost);
+        networkSync.addCost(saved);
         return costMapper.toCostResponseDTO(saved);
     }
 
@@ -78,7 +107,7 @@ public class CostServiceImpl implements CostService {
     public void validateCostNotExists(CostRequestDTO dto) {
         String key = keyGenerator(dto.idA(), dto.idB());
 
-        if (costHashOperations.hasKey(CacheType.COST.getValues(), key)) {
+        if (nearCache.hasKey(CacheType.COST, key)) {
             throw new CostAlreadyExistsException("The cost between these two points already exists in cache.");
         }
 
@@ -94,130 +123,231 @@ public class CostServiceImpl implements CostService {
         String key = keyGenerator(idA, idB);
         CostID costId = new CostID(idA, idB);
 
-        if (costHashOperations.hasKey(CacheType.COST.getValues(), key)) {
-            costHashOperations.delete(CacheType.COST.getValues(), key);
+        if (nearCache.hasKey(CacheType.COST, key)) {
+            nearCache.delete(CacheType.COST, key);
             costRepository.deleteById(costId);
         } else if (costRepository.existsById(costId)) {
             costRepository.deleteById(costId);
         } else {
             throw new CostNotFoundException("There is NO cost between " + idA + " and " + idB);
         }
+        networkSync.removeCost(idA, idB);
     }
 
     @Override
     public List<CostResponseDTO> directCostFromOnePoint(Long id) {
-        Map<String, Cost> costsInCache = costHashOperations.entries(CacheType.COST.getValues());
-
-        if (costsInCache.isEmpty()) {
-            List<Cost> costFromOnePoint = costRepository.findByIdAOrIdB(id, id);
-            return costFromOnePoint.stream()
-                    .map(costMapper::toCostResponseDTO)
-                    .collect(Collectors.toList());
-        } else {
-            return costsInCache.values().stream()
-                    .filter(cost -> cost.getId().getIdA().equals(id) || cost.getId().getIdB().equals(id))
-                    .map(costMapper::toCostResponseDTO)
-                    .collect(Collectors.toList());
+        //The graph keeps every cost next to both of its points and every instance applies every cost write to it
+        //through NetworkSync, the database is only read before it is loaded.
+        if (!costGraphEngine.isLoaded()) {
+            return costRepository.findDirectCostsOfAll(List.of(id));
         }
+        return costGraphEngine.costsOf(id).stream()
+                .map(costMapper::toCostResponseDTO)
+                .collect(Collectors.toList());
     }
 
     @Override
     public CostMinimumDTO minimumCostPath(Long idA, Long idB) {
-        PointOfSale pointOfSale_A = obtainPointOfSale(idA);
-        PointOfSale pointOfSale_B = obtainPointOfSale(idB);
+        return minimumCostPath(idA, idB, null);
+    }
 
-        if (!isPointOfSaleValid(pointOfSale_A) || !isPointOfSaleValid(pointOfSale_B)) {
+    @Override
+    public CostMinimumDTO minimumCostPath(Long idA, Long idB, SearchMode mode) {
+        Network network = network(List.of(idA, idB));
+        if (!network.active().test(idA) || !network.active().test(idB)) {
             throw new InactivePointOfSaleException("Points of sales are inactive or do not exist.");
         }
-
-        Map<String, Cost> costsInCache = costHashOperations.entries(CacheType.COST.getValues());
-        if (costsInCache.isEmpty()) {
-            List<Cost> costsList = costRepository.findAll();
-            costsInCache = new HashMap<>();
-            for (Cost cost : costsList) {
-                String key = keyGenerator(cost.getIdA(), cost.getIdB());
-                costsInCache.put(key, cost);
-            }
+        if (!network.resident()) {
+            PathResult pathResult = onSearchThread(() -> DijkstraSearch.search(network.graph(), idA, idB, network.active(), null));
+            return pathResult == null ? null : costMinimumPathResponse(pathResult);
+        }
+        //Points in different components have no path, no search needed.
+        if (!componentIndex.connected(idA, idB)) {
+            return null;
         }
 
-        Map<Long, Map<Long, Double>> graphStructure = graphBuilder(costsInCache);
-        return searchCostMinimumPath(graphStructure, idA, idB);
+        return shortestPathCache.get(idA, idB, () -> {
+            PathResult pathResult = onSearchThread(() -> contractionHierarchyManager.findPath(idA, idB, costGraphEngine.searchMode(mode)));
+            return pathResult == null ? null : costMinimumPathResponse(pathResult);
+        });
     }
 
-    public boolean isPointOfSaleValid(PointOfSale pos) {
-        return pos != null && pos.isActive();
-    }
+    @Override
+    public CostTreeDTO minimumCostTree(Long id, boolean compact) {
+        Network network = network(List.of(id));
+        if (!network.active().test(id)) {
+            throw new InactivePointOfSaleException("Point of sale is inactive or does not exist.");
+        }
 
-    public PointOfSale obtainPointOfSale(Long id) {
-        String key = id.toString();
-        return pointOfSaleHashOperations.hasKey(CacheType.POINT_OF_SALE.getValues(), key)
-                ? pointOfSaleHashOperations.get(CacheType.POINT_OF_SALE.getValues(), key)
-                : pointOfSaleRepository.findById(id).orElse(null);
+        ShortestPathTree tree = onSearchThread(() -> DijkstraSearch.tree(network.graph(), id, network.active(), null));
+        CostGraph graph = tree.graph();
+        List<CostTreeEntryDTO> points = new ArrayList<>();
+        points.add(new CostTreeEntryDTO(id, 0.0, null));
+        for (int index = 0; index < graph.nodeCount(); index++) {
+            int previous = tree.previousAt(index);
+            if (previous >= 0) {
+                Long previousId = compact ? null : graph.idOf(previous);
+                points.add(new CostTreeEntryDTO(graph.idOf(index), tree.totalCostAt(index), previousId));
+            }
+        }
+        return new CostTreeDTO(id, points);
     }
 
-    public Map<Long, Map<Long, Double>> graphBuilder(Map<String, Cost> costs) {
-        Map<Long, Map<Long, Double>> graphStructure = new HashMap<>();
+    @Override
+    public List<CostBatchResultDTO> minimumCostPathBatch(List<CostPairDTO> pairs) {
+        Set<Long> points = new LinkedHashSet<>();
+        pairs.forEach(pair -> {
+            points.add(pair.idA());
+            points.add(pair.idB());
+        });
+        Network network = network(points);
+        CostGraph graph = network.graph();
+        LongPredicate activePoints = network.active();
+
+        //Each id is validated once, no matter how many pairs use it.
+        Map<Long, Boolean> validPoints = new HashMap<>();
+        Map<Long, List<Integer>> pairsBySource = new LinkedHashMap<>();
+        CostBatchResultDTO[] results = new CostBatchResultDTO[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            CostPairDTO pair = pairs.get(i);
+            boolean validA = validPoints.computeIfAbsent(pair.idA(), activePoints::test);
+            boolean validB = validPoints.computeIfAbsent(pair.idB(), activePoints::test);
+            if (validA && validB && network.resident() && !componentIndex.connected(pair.idA(), pair.idB())) {
+                results[i] = batchResult(pair, null);
+            } else if (validA && validB) {
+                pairsBySource.computeIfAbsent(pair.idA(), id -> new ArrayList<>()).add(i);
+            } else {
+                results[i] = new CostBatchResultDTO(pair.idA(), pair.idB(), null, null, "Points of sales are inactive or do not exist.");
+            }
+        }
 
-        for (Cost cost : costs.values()) {
-            PointOfSale pointOfSale_A = obtainPointOfSale(cost.getId().getIdA());
-            PointOfSale pointOfSale_B = obtainPointOfSale(cost.getId().getIdB());
+        //One single-source search per distinct origin, spread across the search pool.
+        List<Callable<Void>> searches = new ArrayList<>(pairsBySource.size());
+        pairsBySource.forEach((source, pairIndexes) -> searches.add(() -> {
+            long[] targets = pairIndexes.stream().mapToLong(i -> pairs.get(i).idB()).toArray();
+            ShortestPathTree tree = DijkstraSearch.tree(graph, source, activePoints, targets);
+            for (int i : pairIndexes) {
+                results[i] = batchResult(pairs.get(i), tree.pathTo(pairs.get(i).idB()));
+            }
+            return null;
+        }));
+        runAll(searches);
+        return Arrays.asList(results);
+    }
 
-            if (pointOfSale_A != null && pointOfSale_B != null && pointOfSale_A.isActive() && pointOfSale_B.isActive()) {
-                graphStructure.computeIfAbsent(cost.getId().getIdA(), k -> new HashMap<>()).put(cost.getId().getIdB(), cost.getAmount());
-                graphStructure.computeIfAbsent(cost.getId().getIdB(), k -> new HashMap<>()).put(cost.getId().getIdA(), cost.getAmount());
+    //The resident graph and active points once both are loaded. While the warm-up runs, the active points are read
+    //from the database and only the part of the network reachable from the queried points is loaded, ring by ring:
+    //one adjacency query for the whole ring (per chunk of ids), expanding through active points only.
+    private Network network(Collection<Long> points) {
+        if (costGraphEngine.isLoaded() && activePointIndex.isLoaded()) {
+            return new Network(costGraphEngine.snapshot(), activePointIndex.snapshot(), true);
+        }
+        Set<Long> active = new HashSet<>(pointOfSaleRepository.findActiveIds());
+        Set<Long> reached = new HashSet<>();
+        Map<CostID, Cost> costs = new HashMap<>();
+        List<Long> ring = points.stream().filter(active::contains).filter(reached::add).toList();
+        while (!ring.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (CostResponseDTO cost : directCostsOf(ring)) {
+                //Chunks and consecutive rings can return the same cost, it is kept once.
+                costs.putIfAbsent(new CostID(cost.idA(), cost.idB()), new Cost(cost.idA(), cost.idB(), cost.amount()));
+                for (Long id : List.of(cost.idA(), cost.idB())) {
+                    if (active.contains(id) && reached.add(id)) {
+                        next.add(id);
+                    }
+                }
             }
+            ring = next;
         }
-        return graphStructure;
+        return new Network(CostGraph.build(costs.values()), active::contains, false);
     }
 
+    private List<CostResponseDTO> directCostsOf(List<Long> ids) {
+        if (ids.size() <= ADJACENCY_CHUNK) {
+            return costRepository.findDirectCostsOfAll(ids);
+        }
+        List<CostResponseDTO> costs = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ADJACENCY_CHUNK) {
+            costs.addAll(costRepository.findDirectCostsOfAll(ids.subList(from, Math.min(from + ADJACENCY_CHUNK, ids.size()))));
+        }
+        return costs;
+    }
 
-    public CostMinimumDTO searchCostMinimumPath(Map<Long, Map<Long, Double>> graph, Long from, Long to) {
-        PriorityQueue<Nodo> queue = new PriorityQueue<>(Comparator.comparingDouble(n -> n.amount));
-        //Minimum cost from the starting point to each node.
-        Map<Long, Double> minimumCost = new HashMap<>();
-        //To reconstruct the minimum path at the end.
-        Map<Long, Long> minimumPath = new HashMap<>();
+    private record Network(CostGraph graph, LongPredicate active, boolean resident) {}
 
-        queue.add(new Nodo(from, 0.0));
-        minimumCost.put(from, 0.0);
+    private CostBatchResultDTO batchResult(CostPairDTO pair, PathResult pathResult) {
+        if (pathResult == null) {
+            return new CostBatchResultDTO(pair.idA(), pair.idB(), null, null, "No Minimum Cost Path Found");
+        }
+        List<Long> path = Arrays.stream(pathResult.path()).boxed().toList();
+        return new CostBatchResultDTO(pair.idA(), pair.idB(), pathResult.totalCost(), path, null);
+    }
 
-        while (!queue.isEmpty()) {
-            Nodo current = queue.poll();
-            if (current.id.equals(to)) {
-                return costMinimumPathResponse(to, minimumPath, minimumCost.get(to));
+    private void runAll(List<Callable<Void>> searches) {
+        try {
+            for (Future<Void> search : graphSearchExecutor.invokeAll(searches)) {
+                await(search);
             }
-            for (Map.Entry<Long, Double> nextPoint : graph.getOrDefault(current.id, new HashMap<>()).entrySet()) {
-                PointOfSale nextPointOfSale;
-                if (!pointOfSaleHashOperations.hasKey(CacheType.POINT_OF_SALE.getValues(), nextPoint.getKey().toString())) {
-                    nextPointOfSale = pointOfSaleRepository.findById(nextPoint.getKey()).orElse(null);
-                } else {
-                    nextPointOfSale = pointOfSaleHashOperations.get(CacheType.POINT_OF_SALE.getValues(), nextPoint.getKey().toString());
-                }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Minimum cost path batch interrupted", e);
+        }
+    }
 
-                if (nextPointOfSale != null && nextPointOfSale.isActive()) {
-                    double newCost = current.amount + nextPoint.getValue();
-                    if (newCost < minimumCost.getOrDefault(nextPoint.getKey(), Double.MAX_VALUE)) {
-                        minimumCost.put(nextPoint.getKey(), newCost);
-                        minimumPath.put(nextPoint.getKey(), current.id);
-                        queue.add(new Nodo(nextPoint.getKey(), newCost));
-                    }
-                }
-            }
+    //Searches are CPU bound and keep their scratch space per thread, so a virtual request thread hands them to the
+    //search pool instead of holding its carrier and allocating a fresh workspace for every request.
+    private <T> T onSearchThread(Supplier<T> search) {
+        return Thread.currentThread().isVirtual() ? await(graphSearchExecutor.submit(search::get)) : search.get();
+    }
+
+    private static <T> T await(Future<T> search) {
+        try {
+            return search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Minimum cost path search interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new IllegalStateException(e.getCause());
         }
+    }
 
-        return null;
+    public boolean isPointOfSaleValid(PointOfSale pos) {
+        return pos != null && pos.isActive();
     }
 
-    public CostMinimumDTO costMinimumPathResponse(Long to, Map<Long, Long> previous, Double totalCost) {
-        List<PointOfSaleResponseDTO> pointOfSaleList = new LinkedList<>();
-        for (Long current = to; current != null; current = previous.get(current)) {
-            PointOfSale pointOfSale = pointOfSaleHashOperations.get(CacheType.POINT_OF_SALE.getValues(), current.toString());
-            pointOfSaleList.add(0, pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale)); // insert at beginning
+    public PointOfSale obtainPointOfSale(Long id) {
+        PointOfSale pointOfSale = nearCache.get(CacheType.POINT_OF_SALE, id.toString());
+        if (pointOfSale != null) {
+            return pointOfSale;
+        }
+        //Unknown and inactive points are not in the hash, a marker keeps them from reaching the database each time.
+        NegativeCache.Marker<PointOfSale> marker = negativeCache.get(CacheType.POINT_OF_SALE, id.toString());
+        if (marker != null) {
+            return marker.value();
+        }
+        pointOfSale = pointOfSaleRepository.findById(id).orElse(null);
+        if (pointOfSale == null) {
+            negativeCache.markAbsent(CacheType.POINT_OF_SALE, id.toString());
+        } else if (!pointOfSale.isActive()) {
+            negativeCache.markInactive(CacheType.POINT_OF_SALE, id.toString(), pointOfSale);
         }
-        return new CostMinimumDTO(pointOfSaleList, totalCost);
+        return pointOfSale;
     }
 
-    private record Nodo(Long id, Double amount) {}
+    public CostMinimumDTO costMinimumPathResponse(PathResult pathResult) {
+        long[] path = pathResult.path();
+        //A single HMGET for the points not held locally, points missing from Redis fall back one by one.
+        List<PointOfSale> pointsOfSale = nearCache.multiGet(CacheType.POINT_OF_SALE,
+                Arrays.stream(path).mapToObj(Long::toString).toList());
+        List<PointOfSaleResponseDTO> pointOfSaleList = new ArrayList<>(path.length);
+        for (int i = 0; i < path.length; i++) {
+            PointOfSale pointOfSale = pointsOfSale.get(i) != null ? pointsOfSale.get(i) : obtainPointOfSale(path[i]);
+            pointOfSaleList.add(pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale));
+        }
+        return new CostMinimumDTO(pointOfSaleList, pathResult.totalCost());
+    }
 
     public static String keyGenerator(Long idA, Long idB) {
         return idA < idB ? idA + "-" + idB : idB + "-" + idA;
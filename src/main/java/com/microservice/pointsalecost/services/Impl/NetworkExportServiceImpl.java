@@ -0,0 +1,131 @@
+package com.microservice.pointsalecost.services.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import com.microservice.pointsalecost.enums.DataFormat;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import com.microservice.pointsalecost.repositories.CostRepository;
+import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
+import com.microservice.pointsalecost.services.NetworkExportService;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes the points of sale or the costs straight from a database cursor to the given stream, one row at a
+ * time, so memory stays flat whatever the size of the network. Every row is detached once written to keep the
+ * persistence context empty. Without {@code since} the active network is exported; with it, every row modified
+ * at or after that instant, including points that were deactivated, so an incremental export can be applied as
+ * upserts. Costs are only exported between active points, checked with a join in the query.
+ * <p>
+ * An incremental export cannot carry deletions: deleted costs leave no row behind, and the costs of a point
+ * deactivated since then are not exported again. Consumers drop the costs of the points exported as inactive,
+ * and take a full export to catch up with deleted costs. The cost CSV has the import layout (idA,idB,amount).
+ */
+@Service
+public class NetworkExportServiceImpl implements NetworkExportService {
+
+    private static final String POINT_OF_SALE_HEADER = "id,name,active";
+    private static final String COST_HEADER = "idA,idB,amount";
+
+    private final PointOfSaleRepository pointOfSaleRepository;
+    private final CostRepository costRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public NetworkExportServiceImpl(PointOfSaleRepository pointOfSaleRepository, CostRepository costRepository, EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.pointOfSaleRepository = pointOfSaleRepository;
+        this.costRepository = costRepository;
+        this.entityManager = entityManager;
+        //The cursor only stays open inside a transaction; read-only skips the dirty checking of the streamed rows.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public long exportPointsOfSale(OutputStream output, DataFormat format, Instant since) throws IOException {
+        return export(output, format, POINT_OF_SALE_HEADER,
+                () -> since == null ? pointOfSaleRepository.streamActive() : pointOfSaleRepository.streamModifiedSince(since),
+                pointOfSale -> format == DataFormat.CSV
+                        ? pointOfSale.getId() + "," + csvText(pointOfSale.getName()) + "," + pointOfSale.isActive()
+                        : json(new PointOfSaleResponseDTO(pointOfSale.getId(), pointOfSale.getName(), pointOfSale.isActive())));
+    }
+
+    @Override
+    public long exportCosts(OutputStream output, DataFormat format, Instant since) throws IOException {
+        return export(output, format, COST_HEADER,
+                () -> since == null ? costRepository.streamBetweenActivePoints() : costRepository.streamBetweenActivePointsModifiedSince(since),
+                cost -> format == DataFormat.CSV
+                        ? cost.getIdA() + "," + cost.getIdB() + "," + cost.getAmount()
+                        : json(new CostResponseDTO(cost.getIdA(), cost.getIdB(), cost.getAmount())));
+    }
+
+    private <T> long export(OutputStream output, DataFormat format, String csvHeader, Supplier<Stream<T>> rows,
+                            Function<T, String> line) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == DataFormat.CSV) {
+            writer.write(csvHeader);
+            writer.write('\n');
+        }
+        Long written;
+        try {
+            written = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<T> stream = rows.get()) {
+                    Iterator<T> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        T row = iterator.next();
+                        writer.write(line.apply(row));
+                        writer.write('\n');
+                        count++;
+                        entityManager.detach(row);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return written == null ? 0 : written;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,8 +1,13 @@
 package com.microservice.pointsalecost.services.Impl;
 
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.NegativeCache;
+import com.microservice.pointsalecost.cache.NetworkSync;
+import com.microservice.pointsalecost.cache.SingleFlight;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.*;
 import com.microservice.pointsalecost.enums.CacheType;
 import com.microservice.pointsalecost.exceptions.PointOfSaleNotFoundException;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
 import com.microservice.pointsalecost.exceptions.RedisCacheMissException;
 import com.microservice.pointsalecost.mappers.PointOfSaleMapper;
 import com.microservice.pointsalecost.models.PointOfSale;
@@ -10,12 +15,14 @@ import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
 import com.microservice.pointsalecost.services.PointOfSaleService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
-import org.springframework.data.redis.core.HashOperations;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Service
@@ -23,25 +30,40 @@ public class PointOfSaleServiceImpl implements PointOfSaleService {
 
     private final PointOfSaleRepository pointOfSaleRepository;
     private final PointOfSaleMapper pointOfSaleMapper;
-    private final HashOperations<String, String, PointOfSale> pointOfSaleHashOperations;
-
-    public PointOfSaleServiceImpl(PointOfSaleRepository pointOfSaleRepository, PointOfSaleMapper pointOfSaleMapper, RedisTemplate<String, Object> redisTemplate) {
+    private final NearCache nearCache;
+    private final NegativeCache negativeCache;
+    private final ActivePointIndex activePointIndex;
+    private final NetworkSync networkSync;
+    private final SingleFlight singleFlight;
+
+    public PointOfSaleServiceImpl(PointOfSaleRepository pointOfSaleRepository, PointOfSaleMapper pointOfSaleMapper, NearCache nearCache, NegativeCache negativeCache, ActivePointIndex activePointIndex, NetworkSync networkSync,
+                                  SingleFlight singleFlight) {
         this.pointOfSaleRepository = pointOfSaleRepository;
         this.pointOfSaleMapper = pointOfSaleMapper;
-        this.pointOfSaleHashOperations = redisTemplate.opsForHash();
+        this.nearCache = nearCache;
+        this.negativeCache = negativeCache;
+        this.activePointIndex = activePointIndex;
+        this.networkSync = networkSync;
+        this.singleFlight = singleFlight;
     }
 
     @Override
     public List<PointOfSaleResponseDTO> getAll() {
-        List<PointOfSale> pointOfSaleList = pointOfSaleHashOperations.values(CacheType.POINT_OF_SALE.getValues());
+        List<PointOfSale> pointOfSaleList = nearCache.values(CacheType.POINT_OF_SALE);
 
         if (pointOfSaleList.isEmpty()) {
-            pointOfSaleList = pointOfSaleRepository.findAll();
-            for (PointOfSale pointOfSale : pointOfSaleList) {
-                if (pointOfSale.isActive()) {
-                    pointOfSaleHashOperations.put(CacheType.POINT_OF_SALE.getValues(), pointOfSale.getId().toString(), pointOfSale);
-                }
-            }
+            //Concurrent misses share one refill instead of each reading the whole table.
+            pointOfSaleList = singleFlight.execute(CacheType.POINT_OF_SALE.getValues() + ":*",
+                    () -> {
+                        List<PointOfSale> cached = nearCache.values(CacheType.POINT_OF_SALE);
+                        return cached.isEmpty() ? null : cached;
+                    },
+                    () -> {
+                        List<PointOfSale> loaded = pointOfSaleRepository.findAll();
+                        nearCache.putAll(CacheType.POINT_OF_SALE, loaded.stream().filter(PointOfSale::isActive).toList(),
+                                pointOfSale -> pointOfSale.getId().toString());
+                        return loaded;
+                    });
         }
         return pointOfSaleList.stream()
                 .filter(PointOfSale::isActive)
@@ -50,18 +72,69 @@ public class PointOfSaleServiceImpl implements PointOfSaleService {
                 .toList();
     }
 
+    @Override
+    public PointOfSalePageDTO getPage(long after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (!activePointIndex.isLoaded()) {
+            //Index not loaded yet (warm-up still running): the same keyset page straight from the database.
+            List<PointOfSale> page = pointOfSaleRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(after, Limit.of(size));
+            return new PointOfSalePageDTO(page.stream().map(pointOfSaleMapper::toPointOfSaleResponseDTO).toList(),
+                    page.size() < size ? null : page.get(page.size() - 1).getId());
+        }
+        List<Long> ids = activePointIndex.idsAfter(after, size);
+        List<PointOfSale> cached = nearCache.multiGet(CacheType.POINT_OF_SALE, ids.stream().map(String::valueOf).toList());
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (cached.get(i) == null) {
+                missing.add(ids.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            //Points not in Redis yet are read together and written back with one HMSET.
+            Map<Long, PointOfSale> loaded = new HashMap<>();
+            pointOfSaleRepository.findAllById(missing).stream()
+                    .filter(PointOfSale::isActive)
+                    .forEach(pointOfSale -> loaded.put(pointOfSale.getId(), pointOfSale));
+            nearCache.putAll(CacheType.POINT_OF_SALE, List.copyOf(loaded.values()), pointOfSale -> pointOfSale.getId().toString());
+            for (int i = 0; i < ids.size(); i++) {
+                if (cached.get(i) == null) {
+                    cached.set(i, loaded.get(ids.get(i)));
+                }
+            }
+        }
+        //A point deactivated since the index was read is dropped, the cursor still moves past it.
+        return new PointOfSalePageDTO(cached.stream().filter(Objects::nonNull).map(pointOfSaleMapper::toPointOfSaleResponseDTO).toList(),
+                ids.size() < size ? null : ids.get(ids.size() - 1));
+    }
+
     @Override
     public PointOfSaleResponseDTO findById(Long id) {
-        PointOfSale pointOfSale = pointOfSaleHashOperations.get(CacheType.POINT_OF_SALE.getValues(), id.toString());
+        PointOfSale pointOfSale = nearCache.get(CacheType.POINT_OF_SALE, id.toString());
         if (Objects.isNull(pointOfSale)) {
-            pointOfSale = pointOfSaleRepository.findById(id)
-                    .orElseThrow(() -> new PointOfSaleNotFoundException("Point of Sale not found with ID: " + id));
+            pointOfSale = singleFlight.execute(CacheType.POINT_OF_SALE.getValues() + ":" + id,
+                    () -> nearCache.get(CacheType.POINT_OF_SALE, id.toString()),
+                    () -> loadPointOfSale(id));
+        }
+        return pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale);
+    }
 
-            if (pointOfSale.isActive()) {
-                pointOfSaleHashOperations.put(CacheType.POINT_OF_SALE.getValues(), id.toString(), pointOfSale);
+    private PointOfSale loadPointOfSale(Long id) {
+        //Unknown and inactive points stay out of the hash, their marker spares the database until it expires.
+        NegativeCache.Marker<PointOfSale> marker = negativeCache.get(CacheType.POINT_OF_SALE, id.toString());
+        PointOfSale pointOfSale = marker != null ? marker.value() : pointOfSaleRepository.findById(id).orElse(null);
+
+        if (pointOfSale == null) {
+            if (marker == null) {
+                negativeCache.markAbsent(CacheType.POINT_OF_SALE, id.toString());
             }
+            throw new PointOfSaleNotFoundException("Point of Sale not found with ID: " + id);
         }
-        return pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale);
+        if (pointOfSale.isActive()) {
+            nearCache.put(CacheType.POINT_OF_SALE, id.toString(), pointOfSale);
+        } else if (marker == null) {
+            negativeCache.markInactive(CacheType.POINT_OF_SALE, id.toString(), pointOfSale);
+        }
+        return pointOfSale;
     }
 
     @Transactional
@@ -70,10 +143,28 @@ public class PointOfSaleServiceImpl implements PointOfSaleService {
         PointOfSale pointOfSale = pointOfSaleMapper.toEntity(pointOfSaleRequestDTO);
         pointOfSale.setActive(true);
         pointOfSale = pointOfSaleRepository.save(pointOfSale);
-        pointOfSaleHashOperations.put(CacheType.POINT_OF_SALE.getValues(), pointOfSale.getId().toString(), pointOfSale);
+        nearCache.put(CacheType.POINT_OF_SALE, pointOfSale.getId().toString(), pointOfSale);
+        negativeCache.clear(CacheType.POINT_OF_SALE, pointOfSale.getId().toString());
+        networkSync.activate(pointOfSale.getId());
         return pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale);
     }
 
+    @Transactional
+    @Override
+    public List<PointOfSaleResponseDTO> saveAll(List<PointOfSaleRequestDTO> pointOfSaleRequestDTOs) {
+        List<PointOfSale> pointsOfSale = pointOfSaleRequestDTOs.stream()
+                .map(pointOfSaleMapper::toEntity)
+                .peek(pointOfSale -> pointOfSale.setActive(true))
+                .toList();
+        //Sequence ids are assigned in pooled blocks, so the inserts go out in JDBC batches.
+        List<PointOfSale> saved = pointOfSaleRepository.saveAll(pointsOfSale);
+        List<String> ids = saved.stream().map(pointOfSale -> pointOfSale.getId().toString()).toList();
+        nearCache.putAll(CacheType.POINT_OF_SALE, saved, pointOfSale -> pointOfSale.getId().toString());
+        negativeCache.clearAll(CacheType.POINT_OF_SALE, ids);
+        networkSync.activateAll(saved.stream().map(PointOfSale::getId).toList());
+        return saved.stream().map(pointOfSaleMapper::toPointOfSaleResponseDTO).toList();
+    }
+
     @Transactional
     @Override
     public PointOfSaleResponseDTO update(PointOfSaleUpdateDTO pointOfSaleUpdateDTO) {
@@ -84,15 +175,18 @@ public class PointOfSaleServiceImpl implements PointOfSaleService {
             pointOfSale.setName(pointOfSaleUpdateDTO.name());
         }
 
-        pointOfSaleHashOperations.put(CacheType.POINT_OF_SALE.getValues(), pointOfSale.getId().toString(), pointOfSale);
+        nearCache.put(CacheType.POINT_OF_SALE, pointOfSale.getId().toString(), pointOfSale);
         pointOfSaleRepository.save(pointOfSale);
+        negativeCache.clear(CacheType.POINT_OF_SALE, pointOfSale.getId().toString());
+        //Cached paths embed the point names
+        networkSync.update(pointOfSale);
         return pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale);
     }
 
     @Transactional
     @Override
     public void delete(Long id) {
-        Long deleteCache = pointOfSaleHashOperations.delete(CacheType.POINT_OF_SALE.getValues(), id.toString());
+        Long deleteCache = nearCache.delete(CacheType.POINT_OF_SALE, id.toString());
 
         if(deleteCache.equals(0L)) {
             throw new RedisCacheMissException("Point of Sale ID not found in Redis: " + id);
@@ -103,5 +197,6 @@ public class PointOfSaleServiceImpl implements PointOfSaleService {
 
         pointOfSale.setActive(false);
         pointOfSaleRepository.save(pointOfSale);
+        networkSync.deactivate(id);
     }
 }
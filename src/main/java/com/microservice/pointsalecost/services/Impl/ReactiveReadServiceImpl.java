@@ -0,0 +1,157 @@
+package com.microservice.pointsalecost.services.Impl;
+
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import com.microservice.pointsalecost.enums.CacheType;
+import com.microservice.pointsalecost.enums.SearchMode;
+import com.microservice.pointsalecost.exceptions.InactivePointOfSaleException;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.ComponentIndex;
+import com.microservice.pointsalecost.graph.ContractionHierarchyManager;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.PathResult;
+import com.microservice.pointsalecost.graph.ShortestPathCache;
+import com.microservice.pointsalecost.mappers.CostMapper;
+import com.microservice.pointsalecost.mappers.PointOfSaleMapper;
+import com.microservice.pointsalecost.models.PointOfSale;
+import com.microservice.pointsalecost.services.CostService;
+import com.microservice.pointsalecost.services.PointOfSaleService;
+import com.microservice.pointsalecost.services.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Read paths that never park a thread on I/O: Redis is read through the reactive Lettuce API, path searches run on
+ * the graph search pool and the other answers come from the in-memory graph. Only the rare fallbacks to the
+ * database (Redis miss, graph not loaded yet) go through the blocking services, on the bounded elastic scheduler.
+ */
+@Service
+public class ReactiveReadServiceImpl implements ReactiveReadService {
+
+    //Points of sale are never split into buckets, see RedisKeyLayout.
+    private static final String POINT_OF_SALE = CacheType.POINT_OF_SALE.getValues();
+
+    private final ReactiveHashOperations<String, String, Object> hashOperations;
+    private final NearCache nearCache;
+    private final CostGraphEngine costGraphEngine;
+    private final ActivePointIndex activePointIndex;
+    private final ComponentIndex componentIndex;
+    private final ContractionHierarchyManager contractionHierarchyManager;
+    private final ShortestPathCache shortestPathCache;
+    private final PointOfSaleService pointOfSaleService;
+    private final CostService costService;
+    private final PointOfSaleMapper pointOfSaleMapper;
+    private final CostMapper costMapper;
+    private final Scheduler searchScheduler;
+
+    public ReactiveReadServiceImpl(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate, NearCache nearCache,
+                                   CostGraphEngine costGraphEngine, ActivePointIndex activePointIndex, ComponentIndex componentIndex,
+                                   ContractionHierarchyManager contractionHierarchyManager, ShortestPathCache shortestPathCache, PointOfSaleService pointOfSaleService, CostService costService,
+                                   PointOfSaleMapper pointOfSaleMapper, CostMapper costMapper, @Qualifier("graphSearchExecutor") ExecutorService graphSearchExecutor) {
+        this.hashOperations = reactiveRedisTemplate.opsForHash();
+        this.nearCache = nearCache;
+        this.costGraphEngine = costGraphEngine;
+        this.activePointIndex = activePointIndex;
+        this.componentIndex = componentIndex;
+        this.contractionHierarchyManager = contractionHierarchyManager;
+        this.shortestPathCache = shortestPathCache;
+        this.pointOfSaleService = pointOfSaleService;
+        this.costService = costService;
+        this.pointOfSaleMapper = pointOfSaleMapper;
+        this.costMapper = costMapper;
+        this.searchScheduler = Schedulers.fromExecutorService(graphSearchExecutor);
+    }
+
+    @Override
+    public Mono<PointOfSaleResponseDTO> findPointOfSale(Long id) {
+        String field = id.toString();
+        PointOfSale local = nearCache.getIfPresent(CacheType.POINT_OF_SALE, field);
+        Mono<PointOfSale> cached = local != null
+                ? Mono.just(local)
+                : hashOperations.get(POINT_OF_SALE, field).cast(PointOfSale.class);
+        return cached.map(pointOfSaleMapper::toPointOfSaleResponseDTO)
+                .switchIfEmpty(blocking(() -> pointOfSaleService.findById(id)));
+    }
+
+    @Override
+    public Flux<PointOfSaleResponseDTO> streamPointsOfSale() {
+        //HSCAN pages are only fetched as the client consumes them; the order is the hash order, not the id order.
+        Flux<PointOfSaleResponseDTO> scanned = hashOperations.scan(POINT_OF_SALE)
+                .map(entry -> (PointOfSale) entry.getValue())
+                .filter(PointOfSale::isActive)
+                .map(pointOfSaleMapper::toPointOfSaleResponseDTO);
+        return scanned.switchIfEmpty(blocking(pointOfSaleService::getAll).flatMapIterable(points -> points));
+    }
+
+    @Override
+    public Flux<CostResponseDTO> directCostFromOnePoint(Long id) {
+        if (!costGraphEngine.isLoaded()) {
+            return blocking(() -> costService.directCostFromOnePoint(id)).flatMapIterable(costs -> costs);
+        }
+        return Flux.fromIterable(costGraphEngine.costsOf(id)).map(costMapper::toCostResponseDTO);
+    }
+
+    @Override
+    public Mono<CostMinimumDTO> minimumCostPath(Long idA, Long idB, SearchMode mode) {
+        if (!costGraphEngine.isLoaded() || !activePointIndex.isLoaded()) {
+            return blocking(() -> costService.minimumCostPath(idA, idB, mode));
+        }
+        if (!activePointIndex.isActive(idA) || !activePointIndex.isActive(idB)) {
+            return Mono.error(new InactivePointOfSaleException("Points of sales are inactive or do not exist."));
+        }
+        if (!componentIndex.connected(idA, idB)) {
+            return Mono.empty();
+        }
+        //Same path cache as the blocking endpoint, so a route is searched once whichever endpoint asks for it.
+        return shortestPathCache.get(idA, idB, Mono.fromCallable(() -> contractionHierarchyManager.findPath(idA, idB, costGraphEngine.searchMode(mode)))
+                .subscribeOn(searchScheduler)
+                .flatMap(pathResult -> pointsOf(pathResult).map(points -> new CostMinimumDTO(points, pathResult.totalCost()))));
+    }
+
+    //Local hits first, one reactive HMGET for the rest, the blocking lookup only for points missing from Redis.
+    private Mono<List<PointOfSaleResponseDTO>> pointsOf(PathResult pathResult) {
+        List<String> fields = Arrays.stream(pathResult.path()).mapToObj(Long::toString).toList();
+        List<PointOfSale> local = new ArrayList<>(fields.size());
+        List<String> missing = new ArrayList<>();
+        for (String field : fields) {
+            PointOfSale pointOfSale = nearCache.getIfPresent(CacheType.POINT_OF_SALE, field);
+            local.add(pointOfSale);
+            if (pointOfSale == null) {
+                missing.add(field);
+            }
+        }
+        Mono<List<Object>> remote = missing.isEmpty()
+                ? Mono.just(List.of())
+                : hashOperations.multiGet(POINT_OF_SALE, missing);
+        return remote.flatMap(values -> {
+            int next = 0;
+            List<Mono<PointOfSaleResponseDTO>> points = new ArrayList<>(fields.size());
+            for (int i = 0; i < fields.size(); i++) {
+                PointOfSale pointOfSale = local.get(i) != null ? local.get(i) : (PointOfSale) values.get(next++);
+                Long id = pathResult.path()[i];
+                points.add(pointOfSale != null
+                        ? Mono.just(pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale))
+                        : blocking(() -> pointOfSaleService.findById(id)));
+            }
+            return Flux.concat(points).collectList();
+        });
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
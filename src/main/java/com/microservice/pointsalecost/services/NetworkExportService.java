@@ -0,0 +1,13 @@
+package com.microservice.pointsalecost.services;
+
+import com.microservice.pointsalecost.enums.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+public interface NetworkExportService {
+    long exportPointsOfSale(OutputStream output, DataFormat format, Instant since) throws IOException;
+
+    long exportCosts(OutputStream output, DataFormat format, Instant since) throws IOException;
+}
@@ -1,5 +1,6 @@
 package com.microservice.pointsalecost.services;
 
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSalePageDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleRequestDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleUpdateDTO;
@@ -8,9 +9,13 @@ import java.util.List;
 
 public interface PointOfSaleService {
 
+    int MAX_PAGE_SIZE = 1000;
+
     List<PointOfSaleResponseDTO> getAll();
+    PointOfSalePageDTO getPage(long after, int limit);
     PointOfSaleResponseDTO findById(Long id);
     PointOfSaleResponseDTO save(PointOfSaleRequestDTO pointOfSaleRequestDTO);
+    List<PointOfSaleResponseDTO> saveAll(List<PointOfSaleRequestDTO> pointOfSaleRequestDTOs);
     PointOfSaleResponseDTO update(PointOfSaleUpdateDTO pointOfSaleUpdateDTO);
     void delete(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.microservice.pointsalecost.services;
+
+import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import com.microservice.pointsalecost.enums.SearchMode;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveReadService {
+    Mono<PointOfSaleResponseDTO> findPointOfSale(Long id);
+    Flux<PointOfSaleResponseDTO> streamPointsOfSale();
+    Flux<CostResponseDTO> directCostFromOnePoint(Long id);
+    Mono<CostMinimumDTO> minimumCostPath(Long idA, Long idB, SearchMode mode);
+}
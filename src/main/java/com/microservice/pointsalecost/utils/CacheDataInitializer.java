@@ -1,21 +1,35 @@
 package com.microservice.pointsalecost.utils;
 
+import com.microservice.pointsalecost.cache.HashSync;
+import com.microservice.pointsalecost.cache.RedisKeyLayout;
 import com.microservice.pointsalecost.enums.CacheType;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
 import com.microservice.pointsalecost.models.Cost;
 import com.microservice.pointsalecost.models.PointOfSale;
 import com.microservice.pointsalecost.repositories.CostRepository;
 import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
+import com.microservice.pointsalecost.services.Impl.CostServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.event.ContextClosedEvent;
-import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Component
 public class CacheDataInitializer {
@@ -25,21 +39,51 @@ public class CacheDataInitializer {
     private final PointOfSaleRepository pointOfSaleRepository;
     private final CostRepository costRepository;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final CostGraphEngine costGraphEngine;
+    private final ActivePointIndex activePointIndex;
+    private final RedisKeyLayout layout;
+    private final int batchSize;
+    private final Duration syncOverlap;
+    private final CacheWarmupHealthIndicator cacheWarmup;
+    private final PointOfSaleSequenceAligner pointOfSaleSequenceAligner;
+    private final ExecutorService cacheWarmupExecutor;
 
-    public CacheDataInitializer(PointOfSaleRepository pointOfSaleRepository, CostRepository costRepository, RedisTemplate<String, Object> redisTemplate) {
+    public CacheDataInitializer(PointOfSaleRepository pointOfSaleRepository, CostRepository costRepository, RedisTemplate<String, Object> redisTemplate, CostGraphEngine costGraphEngine, ActivePointIndex activePointIndex,
+                                RedisKeyLayout layout, @Value("${cost.cache.batch-size:1000}") int batchSize,
+                                @Value("${cost.cache.sync-overlap:PT1M}") Duration syncOverlap,
+                                CacheWarmupHealthIndicator cacheWarmup, @Qualifier("cacheWarmupExecutor") ExecutorService cacheWarmupExecutor,
+                                PointOfSaleSequenceAligner pointOfSaleSequenceAligner) {
         this.pointOfSaleRepository = pointOfSaleRepository;
         this.costRepository = costRepository;
         this.redisTemplate = redisTemplate;
+        this.costGraphEngine = costGraphEngine;
+        this.activePointIndex = activePointIndex;
+        this.layout = layout;
+        this.batchSize = batchSize;
+        this.syncOverlap = syncOverlap;
+        this.cacheWarmup = cacheWarmup;
+        this.cacheWarmupExecutor = cacheWarmupExecutor;
+        this.pointOfSaleSequenceAligner = pointOfSaleSequenceAligner;
     }
 
+    //Startup does not wait for the warm-up, readiness stays OUT_OF_SERVICE until both parts are loaded.
     @Bean
     public ApplicationRunner initializeRedisCache() {
         return args -> {
-            initializePointOfSaleCache();
-            initializeCostCache();
+            cacheWarmup.track("pointsOfSale", warmUp("Point of Sale", this::initializePointOfSaleCache));
+            cacheWarmup.track("costs", warmUp("Cost", this::initializeCostCache));
         };
     }
 
+    private CompletableFuture<Void> warmUp(String type, Runnable initializer) {
+        return CompletableFuture.runAsync(initializer, cacheWarmupExecutor)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        logger.error("{} warm-up failed", type, error);
+                    }
+                });
+    }
+
     private void initializePointOfSaleCache() {
         List<PointOfSale> pointOfSaleData = List.of(
                 new PointOfSale("CABA", true),
@@ -54,23 +98,31 @@ public class CacheDataInitializer {
                 new PointOfSale("Catamarca", true)
         );
 
-        List<PointOfSale> savedPointOfSaleData;
+        pointOfSaleSequenceAligner.align();
         if (pointOfSaleRepository.count() == 0) {
-            savedPointOfSaleData = pointOfSaleRepository.saveAll(pointOfSaleData);
+            pointOfSaleRepository.saveAll(pointOfSaleData);
             logger.info("Point of Sale saved in DB");
         } else {
-            savedPointOfSaleData = pointOfSaleRepository.findAll();
             logger.info("Point of Sale already exists in DB");
         }
 
-        HashOperations<String, String, PointOfSale> hashOps = redisTemplate.opsForHash();
-        if (hashOps.size(CacheType.POINT_OF_SALE.getValues()) == 0) {
-            savedPointOfSaleData.forEach(pos ->
-                    hashOps.put(CacheType.POINT_OF_SALE.getValues(), pos.getId().toString(), pos));
-            logger.info("Point of Sale Cache Initialized");
-        } else {
-            logger.info("Point of Sale Cache Already Initialized");
+        //The points are read once in keyset pages: the index is always loaded, Redis only gets the changed rows.
+        HashSync<PointOfSale> sync = new HashSync<>(redisTemplate, layout, CacheType.POINT_OF_SALE,
+                pos -> pos.getId().toString(), PointOfSale::getLastModified, syncOverlap);
+        long start = System.nanoTime();
+        List<PointOfSale> savedPointOfSaleData = new ArrayList<>();
+        List<PointOfSale> page = pointOfSaleRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(batchSize));
+        while (!page.isEmpty()) {
+            sync.accept(page);
+            savedPointOfSaleData.addAll(page);
+            logProgress("Point of Sale", savedPointOfSaleData.size(), page.size());
+            page = pointOfSaleRepository.findByIdGreaterThanOrderByIdAsc(page.get(page.size() - 1).getId(), Limit.of(batchSize));
         }
+        logSync("Point of Sale", sync, savedPointOfSaleData.size(), start);
+
+        //Points saved or deleted by requests while the pages were read are replayed on top of them by load.
+        activePointIndex.load(savedPointOfSaleData);
+        logger.info("Active Point of Sale Index Initialized with {} points", activePointIndex.count());
     }
 
     private void initializeCostCache() {
@@ -98,22 +150,68 @@ public class CacheDataInitializer {
             logger.info("Cost data already exists in DB");
         }
 
-        HashOperations<String, String, Cost> hashOps = redisTemplate.opsForHash();
-        if (hashOps.size(CacheType.COST.getValues()) == 0) {
-            costRepository.findAll().forEach(cost -> {
-                String key = cost.getIdA() + "-" + cost.getIdB();
-                hashOps.put(CacheType.COST.getValues(), key, cost);
-            });
-            logger.info("Cost Cache Initialized");
-        } else {
-            logger.info("Cost Cache Already Initialized");
+        migrateLegacyCostHash();
+
+        //Same single pass for the costs: every page feeds the graph and its changed rows go to the buckets.
+        HashSync<Cost> sync = new HashSync<>(redisTemplate, layout, CacheType.COST,
+                cost -> CostServiceImpl.keyGenerator(cost.getIdA(), cost.getIdB()), Cost::getLastModified, syncOverlap);
+        long start = System.nanoTime();
+        List<Cost> costs = new ArrayList<>();
+        List<Cost> page = costRepository.findPageAfter(0L, 0L, Limit.of(batchSize));
+        while (!page.isEmpty()) {
+            sync.accept(page);
+            costs.addAll(page);
+            logProgress("Cost", costs.size(), page.size());
+            Cost last = page.get(page.size() - 1);
+            page = costRepository.findPageAfter(last.getIdA(), last.getIdB(), Limit.of(batchSize));
+        }
+        logSync("Cost", sync, costs.size(), start);
+
+        //Same for the costs added, imported or deleted meanwhile.
+        costGraphEngine.load(costs);
+        logger.info("Cost Graph Initialized with {} points", costGraphEngine.snapshot().nodeCount());
+    }
+
+    /**
+     * Moves the entries of the single {@code cost} hash left by older versions into the buckets, with HSCAN pages
+     * instead of one HGETALL, and unlinks it so Redis frees it in the background.
+     */
+    private void migrateLegacyCostHash() {
+        String legacy = CacheType.COST.getValues();
+        if (!layout.isSharded(CacheType.COST) || !Boolean.TRUE.equals(redisTemplate.hasKey(legacy))) {
+            return;
+        }
+        HashOperations<String, String, Object> hashOps = redisTemplate.opsForHash();
+        long moved = 0;
+        Map<String, Object> batch = new HashMap<>();
+        try (Cursor<Map.Entry<String, Object>> cursor = hashOps.scan(legacy, ScanOptions.scanOptions().count(batchSize).build())) {
+            while (cursor.hasNext()) {
+                Map.Entry<String, Object> entry = cursor.next();
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() == batchSize) {
+                    layout.partition(CacheType.COST, batch).forEach(hashOps::putAll);
+                    moved += batch.size();
+                    batch.clear();
+                }
+            }
         }
+        layout.partition(CacheType.COST, batch).forEach(hashOps::putAll);
+        moved += batch.size();
+        redisTemplate.unlink(legacy);
+        logger.info("Cost Cache migrated to {} buckets, {} entries moved", layout.hashesOf(CacheType.COST).size(), moved);
     }
 
-    @EventListener(ContextClosedEvent.class)
-    public void cleanCache() {
-        redisTemplate.delete(CacheType.POINT_OF_SALE.getValues());
-        redisTemplate.delete(CacheType.COST.getValues());
-        logger.info("Cleaning CACHE");
+    private void logSync(String type, HashSync<?> sync, int rows, long start) {
+        long removed = sync.finish();
+        logger.info(sync.isFull() ? "{} Cache Initialized with {} entries, {} written and {} removed in {} ms"
+                        : "{} Cache Synchronized over {} entries, {} changed and {} removed in {} ms",
+                type, rows, sync.written(), removed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void logProgress(String type, int loaded, int pageSize) {
+        //Roughly every 100 000 rows, whatever the batch size.
+        if (loaded / 100_000 != (loaded - pageSize) / 100_000) {
+            logger.info("{} warm-up: {} rows loaded", type, loaded);
+        }
     }
-}
\ No newline at end of file
+}
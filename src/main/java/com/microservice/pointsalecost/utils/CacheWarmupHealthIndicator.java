@@ -0,0 +1,47 @@
+package com.microservice.pointsalecost.utils;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Progress of the background cache warm-up, exposed as the {@code cacheWarmup} health contributor and part of
+ * the readiness group: OUT_OF_SERVICE until every tracked part (Redis hashes, active index, cost graph) is
+ * loaded, DOWN if one of them failed.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final Map<String, CompletableFuture<?>> parts = new ConcurrentSkipListMap<>();
+
+    public void track(String part, CompletableFuture<?> warmup) {
+        parts.put(part, warmup);
+    }
+
+    @Override
+    public Health health() {
+        if (parts.isEmpty()) {
+            return Health.outOfService().withDetail("warmup", "not started").build();
+        }
+        Health.Builder builder = Health.up();
+        Status status = Status.UP;
+        for (Map.Entry<String, CompletableFuture<?>> part : parts.entrySet()) {
+            CompletableFuture<?> warmup = part.getValue();
+            if (warmup.isCompletedExceptionally()) {
+                status = Status.DOWN;
+                builder.withDetail(part.getKey(), "failed: " + warmup.exceptionNow().getMessage());
+            } else if (!warmup.isDone()) {
+                status = status == Status.DOWN ? status : Status.OUT_OF_SERVICE;
+                builder.withDetail(part.getKey(), "warming");
+            } else {
+                builder.withDetail(part.getKey(), "ready");
+            }
+        }
+        return builder.status(status).build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.microservice.pointsalecost.utils;
+
+import com.microservice.pointsalecost.models.PointOfSale;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Point of sale ids used to come from an IDENTITY column. The id sequence that replaced it starts at 1, so when
+ * its next value is not above the highest id in the table it is restarted past it, with room for the first
+ * pooled block. Runs before anything is inserted at startup; a sequence that is already ahead is left alone.
+ */
+@Component
+public class PointOfSaleSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointOfSaleSequenceAligner.class);
+
+    private final EntityManager entityManager;
+
+    public PointOfSaleSequenceAligner(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public void align() {
+        Dialect dialect = entityManager.unwrap(Session.class).getSessionFactory()
+                .unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        Number maxId = (Number) entityManager.createQuery("SELECT COALESCE(MAX(p.id), 0) FROM PointOfSale p").getSingleResult();
+        Number next = (Number) entityManager.createNativeQuery(
+                dialect.getSequenceSupport().getSequenceNextValString(PointOfSale.ID_SEQUENCE)).getSingleResult();
+        if (next.longValue() > maxId.longValue()) {
+            return;
+        }
+        //Pooled ids come from (value - allocation size, value], so the restart value leaves a whole block above the max.
+        long restart = maxId.longValue() + PointOfSale.ID_ALLOCATION_SIZE + 1;
+        entityManager.createNativeQuery("ALTER SEQUENCE " + PointOfSale.ID_SEQUENCE + " RESTART WITH " + restart).executeUpdate();
+        logger.info("Point of Sale id sequence restarted at {}, highest id was {}", restart, maxId);
+    }
+}
@@ -0,0 +1,62 @@
+package com.microservice.pointsalecost.testCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.cache.CacheInvalidation;
+import com.microservice.pointsalecost.cache.CompactRedisSerializer;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+
+public class CompactRedisSerializerTest {
+
+    private final CompactRedisSerializer compact = new CompactRedisSerializer(true);
+    private final CompactRedisSerializer json = new CompactRedisSerializer(false);
+
+    @Test
+    public void testRoundTrip() {
+        PointOfSale pointOfSale = new PointOfSale(300L, "Córdoba", true);
+        Cost cost = new Cost(1L, 123456789L, 12.75);
+
+        assertEquals(pointOfSale, compact.deserialize(compact.serialize(pointOfSale)));
+        assertEquals(cost, compact.deserialize(compact.serialize(cost)));
+        assertEquals(new PointOfSale(null, null, false), compact.deserialize(compact.serialize(new PointOfSale())));
+        assertEquals(new Cost(), compact.deserialize(compact.serialize(new Cost())));
+    }
+
+    @Test
+    public void testCompactIsSmallerThanJson() {
+        Cost cost = new Cost(10L, 7L, 5d);
+
+        byte[] binary = compact.serialize(cost);
+
+        assertTrue(binary.length * 4 < new GenericJackson2JsonRedisSerializer().serialize(cost).length);
+    }
+
+    @Test
+    public void testReadsBothFormatsWhateverItWrites() {
+        PointOfSale pointOfSale = new PointOfSale(1L, "CABA", true);
+
+        assertEquals(pointOfSale, json.deserialize(compact.serialize(pointOfSale)));
+        assertEquals(pointOfSale, compact.deserialize(new GenericJackson2JsonRedisSerializer().serialize(pointOfSale)));
+    }
+
+    @Test
+    public void testOtherTypesStayJson() {
+        CacheInvalidation invalidation = new CacheInvalidation("instance", "cost", "1-2", 10L);
+
+        assertEquals(invalidation, compact.deserialize(compact.serialize(invalidation)));
+        assertEquals('{', compact.serialize(invalidation)[0]);
+    }
+
+    @Test
+    public void testTruncatedValue() {
+        byte[] binary = compact.serialize(new Cost(1L, 2L, 3d));
+
+        assertThrows(SerializationException.class, () -> compact.deserialize(Arrays.copyOf(binary, binary.length - 2)));
+    }
+}
@@ -0,0 +1,136 @@
+package com.microservice.pointsalecost.testCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.microservice.pointsalecost.cache.HashSync;
+import com.microservice.pointsalecost.cache.RedisKeyLayout;
+import com.microservice.pointsalecost.enums.CacheType;
+import com.microservice.pointsalecost.models.PointOfSale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class HashSyncTest {
+
+    private static final String POINT_OF_SALE = CacheType.POINT_OF_SALE.getValues();
+    private static final Instant MARK = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @BeforeEach
+    public void setUp() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    public void testAccept_WritesOnlyRowsChangedSinceTheMark() {
+        when(valueOperations.get(HashSync.markKey(CacheType.POINT_OF_SALE))).thenReturn(MARK.toString());
+        when(hashOperations.size(POINT_OF_SALE)).thenReturn(2L);
+        PointOfSale unchanged = point(1L, MARK.minus(Duration.ofHours(1)));
+        PointOfSale changed = point(2L, MARK.plus(Duration.ofHours(1)));
+        scanReturns("1", "2");
+
+        HashSync<PointOfSale> sync = sync();
+        sync.accept(List.of(unchanged, changed));
+        long removed = sync.finish();
+
+        assertFalse(sync.isFull());
+        assertEquals(1, sync.written());
+        assertEquals(0, removed);
+        verify(hashOperations).putAll(POINT_OF_SALE, Map.of("2", changed));
+        verify(valueOperations).set(HashSync.markKey(CacheType.POINT_OF_SALE), changed.getLastModified().toString());
+    }
+
+    @Test
+    public void testAccept_WithoutMarkWritesEverything() {
+        PointOfSale first = point(1L, null);
+        PointOfSale second = point(2L, MARK);
+        scanReturns();
+
+        HashSync<PointOfSale> sync = sync();
+        sync.accept(List.of(first, second));
+        sync.finish();
+
+        assertTrue(sync.isFull());
+        verify(hashOperations).putAll(POINT_OF_SALE, Map.of("1", first, "2", second));
+        verify(valueOperations).set(HashSync.markKey(CacheType.POINT_OF_SALE), MARK.toString());
+    }
+
+    @Test
+    public void testFinish_RemovesFieldsOfDeletedRows() {
+        when(valueOperations.get(HashSync.markKey(CacheType.POINT_OF_SALE))).thenReturn(MARK.toString());
+        when(hashOperations.size(POINT_OF_SALE)).thenReturn(2L);
+        scanReturns("1", "9");
+        when(hashOperations.delete(POINT_OF_SALE, "9")).thenReturn(1L);
+
+        HashSync<PointOfSale> sync = sync();
+        sync.accept(List.of(point(1L, MARK.minus(Duration.ofHours(1)))));
+
+        assertEquals(1, sync.finish());
+        verify(hashOperations, never()).putAll(anyString(), argThat(map -> !map.isEmpty()));
+    }
+
+    @Test
+    public void testFinish_RemovesDeletedRowReplacedByAnInsert() {
+        //One row deleted and another inserted while no instance ran: the hash still has as many fields as rows.
+        when(valueOperations.get(HashSync.markKey(CacheType.POINT_OF_SALE))).thenReturn(MARK.toString());
+        when(hashOperations.size(POINT_OF_SALE)).thenReturn(2L);
+        scanReturns("1", "9", "2");
+        when(hashOperations.delete(POINT_OF_SALE, "9")).thenReturn(1L);
+        PointOfSale inserted = point(2L, MARK.plus(Duration.ofHours(1)));
+
+        HashSync<PointOfSale> sync = sync();
+        sync.accept(List.of(point(1L, MARK.minus(Duration.ofHours(1))), inserted));
+
+        assertEquals(1, sync.finish());
+        verify(hashOperations).putAll(POINT_OF_SALE, Map.of("2", inserted));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void scanReturns(String... fields) {
+        Cursor<Map.Entry<Object, Object>> cursor = mock(Cursor.class);
+        Iterator<Map.Entry<Object, Object>> entries = Arrays.stream(fields)
+                .<Map.Entry<Object, Object>>map(field -> Map.entry(field, "cached"))
+                .iterator();
+        doAnswer(invocation -> {
+            entries.forEachRemaining(invocation.getArgument(0));
+            return null;
+        }).when(cursor).forEachRemaining(any());
+        when(hashOperations.scan(eq(POINT_OF_SALE), any())).thenReturn(cursor);
+    }
+
+    private HashSync<PointOfSale> sync() {
+        return new HashSync<>(redisTemplate, new RedisKeyLayout(64), CacheType.POINT_OF_SALE,
+                pos -> pos.getId().toString(), PointOfSale::getLastModified, Duration.ofMinutes(1));
+    }
+
+    private static PointOfSale point(Long id, Instant lastModified) {
+        PointOfSale pointOfSale = new PointOfSale(id, "P" + id, true);
+        pointOfSale.setLastModified(lastModified);
+        return pointOfSale;
+    }
+}
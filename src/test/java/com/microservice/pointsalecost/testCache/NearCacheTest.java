@@ -0,0 +1,149 @@
+package com.microservice.pointsalecost.testCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.microservice.pointsalecost.cache.CacheInvalidation;
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.RedisKeyLayout;
+import com.microservice.pointsalecost.enums.CacheType;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class NearCacheTest {
+
+    private static final String POINT_OF_SALE = CacheType.POINT_OF_SALE.getValues();
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NearCache nearCache;
+
+    @BeforeEach
+    public void setUp() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = new NearCache(redisTemplate, new RedisKeyLayout(64), meterRegistry, 100, Duration.ofMinutes(1), "invalidations", 1000);
+    }
+
+    @Test
+    public void testGet_SecondReadIsLocal() {
+        PointOfSale pointOfSale = new PointOfSale(1L, "CABA", true);
+        when(hashOperations.get(POINT_OF_SALE, "1")).thenReturn(pointOfSale);
+
+        assertEquals(pointOfSale, nearCache.get(CacheType.POINT_OF_SALE, "1"));
+        assertEquals(pointOfSale, nearCache.get(CacheType.POINT_OF_SALE, "1"));
+
+        verify(hashOperations, times(1)).get(POINT_OF_SALE, "1");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "near." + POINT_OF_SALE).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void testMultiGet_LoadsOnlyMissesInOneCall() {
+        PointOfSale first = new PointOfSale(1L, "CABA", true);
+        PointOfSale second = new PointOfSale(2L, "GBA_1", true);
+        when(hashOperations.get(POINT_OF_SALE, "1")).thenReturn(first);
+        when(hashOperations.multiGet(POINT_OF_SALE, List.of("2", "3"))).thenReturn(Arrays.asList(second, null));
+        nearCache.get(CacheType.POINT_OF_SALE, "1");
+
+        List<PointOfSale> result = nearCache.multiGet(CacheType.POINT_OF_SALE, List.of("1", "2", "3"));
+
+        assertEquals(Arrays.asList(first, second, null), result);
+    }
+
+    @Test
+    public void testPut_DropsLocalEntryAndPublishes() {
+        PointOfSale stale = new PointOfSale(1L, "CABA", true);
+        PointOfSale updated = new PointOfSale(1L, "Buenos Aires", true);
+        when(hashOperations.get(POINT_OF_SALE, "1")).thenReturn(stale, updated);
+        nearCache.get(CacheType.POINT_OF_SALE, "1");
+
+        nearCache.put(CacheType.POINT_OF_SALE, "1", updated);
+
+        assertEquals(updated, nearCache.get(CacheType.POINT_OF_SALE, "1"));
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate).convertAndSend(eq("invalidations"), message.capture());
+        CacheInvalidation invalidation = (CacheInvalidation) message.getValue();
+        assertEquals(POINT_OF_SALE, invalidation.hash());
+        assertEquals("1", invalidation.field());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testOnMessage_EvictsEntriesWrittenByOtherInstances() {
+        RedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        when(redisTemplate.getValueSerializer()).thenReturn(serializer);
+        when(hashOperations.get(POINT_OF_SALE, "1")).thenReturn(new PointOfSale(1L, "CABA", true));
+        nearCache.get(CacheType.POINT_OF_SALE, "1");
+
+        CacheInvalidation invalidation = new CacheInvalidation("other-instance", POINT_OF_SALE, "1", System.currentTimeMillis());
+        nearCache.onMessage(new DefaultMessage("invalidations".getBytes(), serializer.serialize(invalidation)), null);
+        nearCache.get(CacheType.POINT_OF_SALE, "1");
+
+        verify(hashOperations, times(2)).get(POINT_OF_SALE, "1");
+        assertEquals(1, meterRegistry.get("cache.invalidation.lag").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testOnMessage_IgnoresGraphChanges() {
+        RedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        when(redisTemplate.getValueSerializer()).thenReturn(serializer);
+
+        CacheInvalidation change = new CacheInvalidation("other-instance", CacheInvalidation.Change.COSTS_ADDED, null, null,
+                new Cost[]{new Cost(1L, 2L, 5d)}, null, System.currentTimeMillis());
+        nearCache.onMessage(new DefaultMessage("invalidations".getBytes(), serializer.serialize(change)), null);
+
+        assertEquals(0, meterRegistry.get("cache.invalidation.lag").timer().count());
+    }
+
+    @Test
+    public void testPut_CostGoesToItsBucket() {
+        RedisKeyLayout layout = new RedisKeyLayout(64);
+        String bucket = layout.hashOf(CacheType.COST, "1-2");
+
+        nearCache.put(CacheType.COST, "1-2", new Cost(1L, 2L, 2d));
+
+        verify(hashOperations).put(eq(bucket), eq("1-2"), any());
+        assertTrue(bucket.startsWith("cost:{"));
+    }
+
+    @Test
+    public void testMultiGet_OneHmgetPerBucket() {
+        RedisKeyLayout layout = new RedisKeyLayout(2);
+        nearCache = new NearCache(redisTemplate, layout, meterRegistry, 100, Duration.ofMinutes(1), "invalidations", 1000);
+        List<String> fields = List.of("1-2", "1-3", "2-3", "2-4");
+        Map<String, List<Object>> byBucket = new HashMap<>();
+        fields.forEach(field -> byBucket.computeIfAbsent(layout.hashOf(CacheType.COST, field), key -> new ArrayList<>()).add(field));
+        byBucket.forEach((bucket, keys) -> when(hashOperations.multiGet(bucket, keys)).thenReturn(Arrays.asList(new Object[keys.size()])));
+
+        nearCache.multiGet(CacheType.COST, fields);
+
+        byBucket.forEach((bucket, keys) -> verify(hashOperations).multiGet(bucket, keys));
+    }
+}
@@ -0,0 +1,172 @@
+package com.microservice.pointsalecost.testCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.microservice.pointsalecost.cache.CacheInvalidation;
+import com.microservice.pointsalecost.cache.CompactRedisSerializer;
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.NetworkSync;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.ShortestPathCache;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(MockitoExtension.class)
+public class NetworkSyncTest {
+
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(false);
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private NearCache nearCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CostGraphEngine costGraphEngine;
+    private ActivePointIndex activePointIndex;
+    private ShortestPathCache shortestPathCache;
+    private NetworkSync networkSync;
+
+    @BeforeEach
+    public void setUp() {
+        when(nearCache.channel()).thenReturn("invalidations");
+        when(nearCache.instanceId()).thenReturn("this-instance");
+        meterRegistry = new SimpleMeterRegistry();
+        costGraphEngine = new CostGraphEngine();
+        activePointIndex = new ActivePointIndex();
+        shortestPathCache = new ShortestPathCache(100, meterRegistry);
+        networkSync = new NetworkSync(redisTemplate, nearCache, costGraphEngine, activePointIndex, shortestPathCache, meterRegistry, 2);
+        costGraphEngine.load(List.of());
+        activePointIndex.load(List.of());
+    }
+
+    @Test
+    public void testAddCost_AppliesLocallyAndPublishes() {
+        networkSync.addCost(new Cost(1L, 2L, 5d));
+
+        assertEquals(1, costGraphEngine.costsOf(1L).size());
+        assertEquals(1, shortestPathCache.version());
+        CacheInvalidation published = published();
+        assertEquals(CacheInvalidation.Change.COSTS_ADDED, published.change());
+        assertEquals("this-instance", published.instanceId());
+        assertEquals(new Cost(1L, 2L, 5d), published.costs()[0]);
+    }
+
+    @Test
+    public void testAddCosts_PublishedInBatches() {
+        networkSync.addCosts(List.of(new Cost(1L, 2L, 5d), new Cost(2L, 3L, 5d), new Cost(3L, 4L, 5d)));
+
+        verify(redisTemplate, times(2)).convertAndSend(eq("invalidations"), any(CacheInvalidation.class));
+        assertEquals(1, shortestPathCache.version());
+    }
+
+    @Test
+    public void testInsideTransaction_AppliedAndPublishedOnlyAfterCommit() {
+        activePointIndex.load(List.of(new PointOfSale(1L, "GBA_1", true)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            networkSync.deactivate(1L);
+
+            assertTrue(activePointIndex.isActive(1L));
+            assertEquals(0, shortestPathCache.version());
+            verifyNoInteractions(redisTemplate);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertFalse(activePointIndex.isActive(1L));
+        assertEquals(1, shortestPathCache.version());
+        assertArrayEquals(new long[]{1L}, published().pointIds());
+    }
+
+    @Test
+    public void testInsideTransaction_RollbackLeavesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            networkSync.addCost(new Cost(1L, 2L, 5d));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(costGraphEngine.costsOf(1L).isEmpty());
+        assertEquals(0, shortestPathCache.version());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    public void testOnMessage_AppliesCostsFromOtherInstances() {
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+        costGraphEngine.addCost(new Cost(3L, 4L, 1d));
+
+        receive(new CacheInvalidation("other-instance", CacheInvalidation.Change.COSTS_ADDED, null, null,
+                new Cost[]{new Cost(1L, 2L, 5d)}, null, System.currentTimeMillis()));
+        costGraphEngine.addCost(new Cost(5L, 6L, 1d));
+        AtomicInteger rebuilds = new AtomicInteger();
+        costGraphEngine.onChange(rebuilds::incrementAndGet);
+        receive(new CacheInvalidation("other-instance", CacheInvalidation.Change.COSTS_REMOVED, null, null,
+                null, new long[]{3L, 4L, 6L, 5L}, System.currentTimeMillis()));
+
+        assertEquals(List.of(new Cost(1L, 2L, 5d)), costGraphEngine.costsOf(2L));
+        assertTrue(costGraphEngine.costsOf(3L).isEmpty());
+        assertTrue(costGraphEngine.costsOf(5L).isEmpty());
+        assertEquals(1, rebuilds.get());
+        assertEquals(2, shortestPathCache.version());
+        assertEquals(2, meterRegistry.get("network.sync.lag").timer().count());
+    }
+
+    @Test
+    public void testOnMessage_AppliesPointsFromOtherInstances() {
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+        activePointIndex.load(List.of(new PointOfSale(3L, "GBA_1", true)));
+
+        receive(new CacheInvalidation("other-instance", CacheInvalidation.Change.POINTS_ACTIVATED, null, null,
+                null, new long[]{1L, 2L}, System.currentTimeMillis()));
+        receive(new CacheInvalidation("other-instance", CacheInvalidation.Change.POINTS_DEACTIVATED, null, null,
+                null, new long[]{3L}, System.currentTimeMillis()));
+
+        assertTrue(activePointIndex.isActive(1L));
+        assertTrue(activePointIndex.isActive(2L));
+        assertFalse(activePointIndex.isActive(3L));
+    }
+
+    @Test
+    public void testOnMessage_IgnoresOwnChangesAndEvictions() {
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+
+        receive(new CacheInvalidation("this-instance", CacheInvalidation.Change.POINTS_ACTIVATED, null, null,
+                null, new long[]{1L}, System.currentTimeMillis()));
+        receive(new CacheInvalidation("other-instance", "pointOfSale", "1", System.currentTimeMillis()));
+
+        assertFalse(activePointIndex.isActive(1L));
+        assertEquals(0, shortestPathCache.version());
+    }
+
+    private void receive(CacheInvalidation change) {
+        networkSync.onMessage(new DefaultMessage("invalidations".getBytes(), serializer.serialize(change)), null);
+    }
+
+    private CacheInvalidation published() {
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate).convertAndSend(eq("invalidations"), message.capture());
+        return (CacheInvalidation) message.getValue();
+    }
+}
@@ -0,0 +1,48 @@
+package com.microservice.pointsalecost.testCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.cache.RedisKeyLayout;
+import com.microservice.pointsalecost.enums.CacheType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RedisKeyLayoutTest {
+
+    @Test
+    public void testHashOf_CostIsBucketedAndStable() {
+        RedisKeyLayout layout = new RedisKeyLayout(16);
+
+        String bucket = layout.hashOf(CacheType.COST, "3-8");
+
+        assertEquals(bucket, layout.hashOf(CacheType.COST, "3-8"));
+        assertTrue(layout.hashesOf(CacheType.COST).contains(bucket));
+        assertEquals(16, layout.hashesOf(CacheType.COST).size());
+        assertEquals("cost:{0}", layout.hashesOf(CacheType.COST).get(0));
+    }
+
+    @Test
+    public void testHashOf_PointOfSaleAndZeroBucketsKeepSingleHash() {
+        assertEquals("point_of_sale", new RedisKeyLayout(16).hashOf(CacheType.POINT_OF_SALE, "1"));
+        assertEquals(List.of("cost"), new RedisKeyLayout(0).hashesOf(CacheType.COST));
+        assertEquals("cost", new RedisKeyLayout(0).hashOf(CacheType.COST, "1-2"));
+    }
+
+    @Test
+    public void testPartition_KeepsEveryFieldInItsBucket() {
+        RedisKeyLayout layout = new RedisKeyLayout(4);
+        Map<String, Integer> fields = new HashMap<>();
+        for (int i = 1; i <= 50; i++) {
+            fields.put("1-" + i, i);
+        }
+
+        Map<String, Map<String, Integer>> partition = layout.partition(CacheType.COST, fields);
+
+        assertEquals(50, partition.values().stream().mapToInt(Map::size).sum());
+        partition.forEach((bucket, entries) -> entries.keySet()
+                .forEach(field -> assertEquals(bucket, layout.hashOf(CacheType.COST, field))));
+    }
+}
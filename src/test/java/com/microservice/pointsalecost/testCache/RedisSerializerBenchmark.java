@@ -0,0 +1,72 @@
+package com.microservice.pointsalecost.testCache;
+
+import com.microservice.pointsalecost.cache.CompactRedisSerializer;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares bytes per entry and encode/decode throughput of the JSON and compact Redis value serializers.
+ * Not a unit test, run it by hand: {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt}
+ * then {@code java -cp target/test-classes:target/classes:$(cat target/classpath.txt)
+ * com.microservice.pointsalecost.testCache.RedisSerializerBenchmark}.
+ */
+public class RedisSerializerBenchmark {
+
+    private static final int ENTRIES = 10_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        List<Object> pointsOfSale = new ArrayList<>();
+        List<Object> costs = new ArrayList<>();
+        for (long id = 1; id <= ENTRIES; id++) {
+            pointsOfSale.add(new PointOfSale(id, "Point of Sale " + id, random.nextBoolean()));
+            costs.add(new Cost(id, 1L + random.nextInt(ENTRIES), 1 + random.nextInt(100) * 0.5));
+        }
+
+        run("PointOfSale", pointsOfSale);
+        run("Cost", costs);
+    }
+
+    private static void run(String type, List<Object> values) {
+        measure(type, "json", new GenericJackson2JsonRedisSerializer(), values);
+        measure(type, "compact", new CompactRedisSerializer(true), values);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void measure(String type, String format, RedisSerializer serializer, List<Object> values) {
+        byte[][] encoded = new byte[values.size()][];
+        long bytes = 0;
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        int checksum = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < values.size(); i++) {
+                encoded[i] = serializer.serialize(values.get(i));
+            }
+            long encodedAt = System.nanoTime();
+            for (byte[] value : encoded) {
+                checksum += serializer.deserialize(value).hashCode();
+            }
+            if (round >= WARMUP_ROUNDS) {
+                encodeNanos += encodedAt - start;
+                decodeNanos += System.nanoTime() - encodedAt;
+            }
+        }
+        for (byte[] value : encoded) {
+            bytes += value.length;
+        }
+        long operations = (long) values.size() * MEASURED_ROUNDS;
+        System.out.printf("%-11s %-8s %6.1f bytes/entry  encode %,12.0f ops/s  decode %,12.0f ops/s  (checksum %d)%n",
+                type, format, (double) bytes / values.size(),
+                operations * 1e9 / encodeNanos, operations * 1e9 / decodeNanos, checksum);
+    }
+}
@@ -0,0 +1,107 @@
+package com.microservice.pointsalecost.testCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.microservice.pointsalecost.cache.SingleFlight;
+import com.microservice.pointsalecost.exceptions.PointOfSaleNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(MockitoExtension.class)
+public class SingleFlightTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, false, Duration.ofSeconds(5), Duration.ofMillis(10));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(8);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    return singleFlight.execute("point_of_sale:1", () -> null, () -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        return "CABA";
+                    });
+                }));
+            }
+            ready.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("CABA", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testLoaderExceptionReachesTheCaller() {
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, false, Duration.ofSeconds(5), Duration.ofMillis(10));
+
+        assertThrows(PointOfSaleNotFoundException.class, () -> singleFlight.execute("point_of_sale:9", () -> null,
+                () -> { throw new PointOfSaleNotFoundException("Point of Sale not found with ID: 9"); }));
+        assertEquals("loaded", singleFlight.execute("point_of_sale:9", () -> null, () -> "loaded"));
+    }
+
+    @Test
+    public void testWaitsForTheInstanceHoldingTheRedisLock() {
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, true, Duration.ofSeconds(5), Duration.ofMillis(1));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("lock:point_of_sale:*"), anyString(), any(Duration.class))).thenReturn(false);
+        AtomicInteger polls = new AtomicInteger();
+
+        String result = singleFlight.execute("point_of_sale:*", () -> polls.incrementAndGet() < 3 ? null : "filled by another instance",
+                () -> fail("The lock holder loads, not this instance"));
+
+        assertEquals("filled by another instance", result);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLockHolderLoadsAndReleases() {
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, true, Duration.ofSeconds(5), Duration.ofMillis(1));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("lock:point_of_sale:1"), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertEquals("CABA", singleFlight.execute("point_of_sale:1", () -> null, () -> "CABA"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("lock:point_of_sale:1")), anyString());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
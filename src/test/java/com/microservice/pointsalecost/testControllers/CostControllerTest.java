@@ -1,15 +1,25 @@
 package com.microservice.pointsalecost.testControllers;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.microservice.pointsalecost.controllers.CostController;
+import com.microservice.pointsalecost.dtos.CostDTO.CostBatchResultDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostImportErrorDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostImportReportDTO;
 import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
 import com.microservice.pointsalecost.dtos.CostDTO.CostRequestDTO;
 import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostTreeDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostTreeEntryDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import com.microservice.pointsalecost.enums.DataFormat;
+import com.microservice.pointsalecost.enums.SearchMode;
+import com.microservice.pointsalecost.services.CostImportService;
 import com.microservice.pointsalecost.services.CostService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +43,9 @@ public class CostControllerTest {
     @MockBean
     private CostService costService;
 
+    @MockBean
+    private CostImportService costImportService;
+
     @InjectMocks
     private CostController costController;
 
@@ -94,7 +107,7 @@ public class CostControllerTest {
                 new PointOfSaleResponseDTO(2L, "Terminal B", true)
         ), 15.50);
 
-        when(costService.minimumCostPath(1L, 2L)).thenReturn(costMinimumDTO);
+        when(costService.minimumCostPath(1L, 2L, null)).thenReturn(costMinimumDTO);
 
         mockMvc.perform(get("/api/cost/minimum/1/2")
                         .header("X-User-Authorities", "ADMIN"))
@@ -106,9 +119,25 @@ public class CostControllerTest {
                 .andExpect(jsonPath("$.data.totalCost").value(15.50));
     }
 
+    @Test
+    public void testGetMinimumCostPath_WithMode() throws Exception {
+        CostMinimumDTO costMinimumDTO = new CostMinimumDTO(Arrays.asList(
+                new PointOfSaleResponseDTO(1L, "Terminal A", true),
+                new PointOfSaleResponseDTO(2L, "Terminal B", true)
+        ), 15.50);
+
+        when(costService.minimumCostPath(1L, 2L, SearchMode.ALT)).thenReturn(costMinimumDTO);
+
+        mockMvc.perform(get("/api/cost/minimum/1/2")
+                        .param("mode", "ALT")
+                        .header("X-User-Authorities", "CLIENT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalCost").value(15.50));
+    }
+
     @Test
     public void testGetMinimumCostPath_NotFound() throws Exception {
-        when(costService.minimumCostPath(1L, 2L)).thenReturn(null);
+        when(costService.minimumCostPath(1L, 2L, null)).thenReturn(null);
 
         mockMvc.perform(get("/api/cost/minimum/1/2")
                         .header("X-User-Authorities", "ADMIN"))
@@ -116,4 +145,64 @@ public class CostControllerTest {
                 .andExpect(jsonPath("$.estado").value(false))
                 .andExpect(jsonPath("$.message").value("No Minimum Cost Path Found"));
     }
+
+    @Test
+    public void testGetMinimumCostsFromPoint() throws Exception {
+        CostTreeDTO costTreeDTO = new CostTreeDTO(1L, Arrays.asList(
+                new CostTreeEntryDTO(1L, 0d, null),
+                new CostTreeEntryDTO(2L, 15.50, null)));
+
+        when(costService.minimumCostTree(1L, true)).thenReturn(costTreeDTO);
+
+        mockMvc.perform(get("/api/cost/minimum/from/1")
+                        .param("compact", "true")
+                        .header("X-User-Authorities", "CLIENT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.originId").value(1L))
+                .andExpect(jsonPath("$.data.points[1].id").value(2L))
+                .andExpect(jsonPath("$.data.points[1].totalCost").value(15.50))
+                .andExpect(jsonPath("$.data.points[1].previousId").doesNotExist());
+    }
+
+    @Test
+    public void testGetMinimumCostPaths() throws Exception {
+        List<CostBatchResultDTO> results = Arrays.asList(
+                new CostBatchResultDTO(1L, 2L, 15.50, Arrays.asList(1L, 2L), null),
+                new CostBatchResultDTO(1L, 9L, null, null, "No Minimum Cost Path Found"));
+
+        when(costService.minimumCostPathBatch(anyList())).thenReturn(results);
+
+        mockMvc.perform(post("/api/cost/minimum/batch")
+                        .header("X-User-Authorities", "CLIENT")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"pairs\":[{\"idA\":1,\"idB\":2},{\"idA\":1,\"idB\":9}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dataIterable[0].totalCost").value(15.50))
+                .andExpect(jsonPath("$.dataIterable[0].path[1]").value(2L))
+                .andExpect(jsonPath("$.dataIterable[1].message").value("No Minimum Cost Path Found"));
+    }
+
+    @Test
+    public void testGetMinimumCostPaths_EmptyPairs() throws Exception {
+        mockMvc.perform(post("/api/cost/minimum/batch")
+                        .header("X-User-Authorities", "CLIENT")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"pairs\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testImportCosts() throws Exception {
+        CostImportReportDTO report = new CostImportReportDTO(2, 1, 1, List.of(new CostImportErrorDTO(2, "The amount cannot be negative.")));
+        when(costImportService.importCosts(any(), eq(DataFormat.CSV))).thenReturn(report);
+
+        mockMvc.perform(post("/api/cost/import")
+                        .header("X-User-Authorities", "ADMIN")
+                        .contentType("text/csv")
+                        .content("1,2,2.5\n1,3,-1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value(false))
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.errors[0].line").value(2));
+    }
 }
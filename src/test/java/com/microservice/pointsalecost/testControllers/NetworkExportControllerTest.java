@@ -0,0 +1,105 @@
+package com.microservice.pointsalecost.testControllers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.microservice.pointsalecost.controllers.NetworkExportController;
+import com.microservice.pointsalecost.enums.DataFormat;
+import com.microservice.pointsalecost.services.NetworkExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+@WebMvcTest(NetworkExportController.class)
+public class NetworkExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NetworkExportService networkExportService;
+
+    @Test
+    public void testExportCosts() throws Exception {
+        when(networkExportService.exportCosts(any(), eq(DataFormat.CSV), isNull())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("idA,idB,amount\n1,2,2.5\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/export/costs").header("X-User-Authorities", "CLIENT"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("idA,idB,amount\n1,2,2.5\n"))
+                .andReturn();
+
+        Instant watermark = Instant.parse(result.getResponse().getHeader(NetworkExportController.WATERMARK_HEADER));
+        assertTrue(watermark.isBefore(Instant.now().minus(Duration.ofMinutes(4))));
+    }
+
+    @Test
+    public void testExportPointsOfSale_GzipAndSince() throws Exception {
+        Instant since = Instant.parse("2026-01-01T00:00:00Z");
+        when(networkExportService.exportPointsOfSale(any(), eq(DataFormat.NDJSON), eq(since))).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("{\"id\":1,\"name\":\"CABA\",\"active\":true}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/export/pointsOfSale")
+                        .param("format", "NDJSON")
+                        .param("since", "2026-01-01T00:00:00Z")
+                        .header("Accept-Encoding", "gzip, deflate")
+                        .header("X-User-Authorities", "ADMIN"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals("{\"id\":1,\"name\":\"CABA\",\"active\":true}\n", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testExportCosts_GzipRefusedWithQualityZero() throws Exception {
+        when(networkExportService.exportCosts(any(), eq(DataFormat.CSV), isNull())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("idA,idB,amount\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        mockMvc.perform(get("/api/export/costs")
+                        .header("Accept-Encoding", "deflate, gzip;q=0, *;q=0.5")
+                        .header("X-User-Authorities", "CLIENT"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("idA,idB,amount\n"));
+        mockMvc.perform(get("/api/export/costs")
+                        .header("Accept-Encoding", "br, *;q=0.5")
+                        .header("X-User-Authorities", "CLIENT"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    public void testExportCosts_AccessDenied() throws Exception {
+        mockMvc.perform(get("/api/export/costs").header("X-User-Authorities", "GUEST"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(networkExportService);
+    }
+}
@@ -1,11 +1,13 @@
 package com.microservice.pointsalecost.testControllers;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.microservice.pointsalecost.controllers.PontOfSaleController;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSalePageDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleRequestDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleUpdateDTO;
@@ -57,6 +59,57 @@ public class PontOfSaleControllerTest {
                 .andExpect(jsonPath("$.data.active").value(true));
     }
 
+    @Test
+    public void testAddPointsOfSale() throws Exception {
+        List<PointOfSaleResponseDTO> responseDTOs = List.of(new PointOfSaleResponseDTO(1L, "Terminal A", true), new PointOfSaleResponseDTO(2L, "Terminal B", true));
+
+        when(pointOfSaleService.saveAll(anyList())).thenReturn(responseDTOs);
+
+        mockMvc.perform(post("/api/pointOfSale/addAll")
+                        .header("X-User-Authorities", "ADMIN")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"pointsOfSale\":[{\"name\":\"Terminal A\"},{\"name\":\"Terminal B\"}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.dataIterable[1].id").value(2L));
+    }
+
+    @Test
+    public void testAddPointsOfSale_RejectsBlankNames() throws Exception {
+        mockMvc.perform(post("/api/pointOfSale/addAll")
+                        .header("X-User-Authorities", "ADMIN")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"pointsOfSale\":[{\"name\":\"\"}]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetPointOfSalePage() throws Exception {
+        PointOfSalePageDTO page = new PointOfSalePageDTO(List.of(new PointOfSaleResponseDTO(11L, "Terminal K", true)), 11L);
+
+        when(pointOfSaleService.getPage(10L, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/pointOfSale/page")
+                        .param("after", "10")
+                        .param("limit", "1")
+                        .header("X-User-Authorities", "ADMIN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.pointsOfSale[0].id").value(11L))
+                .andExpect(jsonPath("$.data.nextAfter").value(11L));
+    }
+
+    @Test
+    public void testStreamPointsOfSale_FollowsTheCursor() throws Exception {
+        when(pointOfSaleService.getPage(0L, PointOfSaleService.MAX_PAGE_SIZE))
+                .thenReturn(new PointOfSalePageDTO(List.of(new PointOfSaleResponseDTO(1L, "A", true)), 1L));
+        when(pointOfSaleService.getPage(1L, PointOfSaleService.MAX_PAGE_SIZE))
+                .thenReturn(new PointOfSalePageDTO(List.of(new PointOfSaleResponseDTO(2L, "B", true)), null));
+
+        mockMvc.perform(get("/api/pointOfSale/stream").header("X-User-Authorities", "ADMIN"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1,\"name\":\"A\",\"active\":true}\n{\"id\":2,\"name\":\"B\",\"active\":true}\n"));
+    }
+
     @Test
     public void testGetPointOfSale() throws Exception {
         PointOfSaleResponseDTO responseDTO = new PointOfSaleResponseDTO(1L, "Terminal A", true);
@@ -0,0 +1,86 @@
+package com.microservice.pointsalecost.testControllers;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.microservice.pointsalecost.controllers.ReactiveReadController;
+import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import com.microservice.pointsalecost.services.ReactiveReadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@WebMvcTest(ReactiveReadController.class)
+public class ReactiveReadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveReadService reactiveReadService;
+
+    @Test
+    public void testGetPointOfSale() throws Exception {
+        when(reactiveReadService.findPointOfSale(1L)).thenReturn(Mono.just(new PointOfSaleResponseDTO(1L, "CABA", true)));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/pointOfSale/1").header("X-User-Authorities", "CLIENT"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("CABA"));
+    }
+
+    @Test
+    public void testGetDirectCosts_StreamsNdjson() throws Exception {
+        when(reactiveReadService.directCostFromOnePoint(1L))
+                .thenReturn(Flux.just(new CostResponseDTO(1L, 2L, 2.0), new CostResponseDTO(1L, 3L, 3.0)));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/cost/direct/1").header("X-User-Authorities", "CLIENT"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string("{\"idA\":1,\"idB\":2,\"amount\":2.0}\n{\"idA\":1,\"idB\":3,\"amount\":3.0}\n"));
+    }
+
+    @Test
+    public void testGetMinimumCostPath_NotFound() throws Exception {
+        when(reactiveReadService.minimumCostPath(1L, 2L, null)).thenReturn(Mono.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/cost/minimum/1/2").header("X-User-Authorities", "CLIENT"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("No Minimum Cost Path Found"));
+    }
+
+    @Test
+    public void testGetMinimumCostPath_Found() throws Exception {
+        CostMinimumDTO costMinimumDTO = new CostMinimumDTO(List.of(new PointOfSaleResponseDTO(1L, "CABA", true), new PointOfSaleResponseDTO(2L, "GBA_1", true)), 2.0);
+        when(reactiveReadService.minimumCostPath(1L, 2L, null)).thenReturn(Mono.just(costMinimumDTO));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/cost/minimum/1/2").header("X-User-Authorities", "ADMIN"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalCost").value(2.0));
+    }
+}
@@ -0,0 +1,138 @@
+package com.microservice.pointsalecost.testControllers;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Throughput of a blocking request path on a bounded platform thread pool and on virtual threads.
+ * Not a unit test, run it by hand; it only needs the JDK: {@code mvn test-compile} then
+ * {@code java -cp target/test-classes com.microservice.pointsalecost.testControllers.RequestPathLoadBenchmark [url [authorities]]}.
+ * <p>
+ * With a URL it drives the running service, e.g. {@code http://localhost:8081/api/cost/minimum/1/4}, sending the
+ * {@code X-User-Authorities} header the gateway would add ({@code CLIENT} unless given). Run it against the service
+ * started with {@code spring.threads.virtual.enabled} off and on to compare both.
+ * <p>
+ * Without arguments it only checks the harness itself: it serves a local stand-in endpoint whose handler waits
+ * like a Redis plus JDBC round trip, once on 200 platform threads (the Tomcat default) and once on virtual threads.
+ * Those numbers say nothing about the service.
+ */
+public class RequestPathLoadBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final Duration RUN = Duration.ofSeconds(10);
+    private static final Duration BLOCKING_CALL = Duration.ofMillis(20);
+    private static final int PLATFORM_THREADS = 200;
+    private static final String AUTHORITIES_HEADER = "X-User-Authorities";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            report("target", load(URI.create(args[0]), args.length > 1 ? args[1] : "CLIENT"));
+            return;
+        }
+        report("platform threads (" + PLATFORM_THREADS + ")", serveAndLoad(Executors.newFixedThreadPool(PLATFORM_THREADS)));
+        report("virtual threads", serveAndLoad(Executors.newVirtualThreadPerTaskExecutor()));
+    }
+
+    private static Result serveAndLoad(ExecutorService handlers) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), CLIENTS);
+        server.createContext("/cost", exchange -> {
+            try {
+                Thread.sleep(BLOCKING_CALL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"amount\":2.0}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(handlers);
+        server.start();
+        try {
+            return load(URI.create("http://localhost:" + server.getAddress().getPort() + "/cost"), "CLIENT");
+        } finally {
+            server.stop(0);
+            handlers.shutdownNow();
+        }
+    }
+
+    private static Result load(URI uri, String authorities) throws InterruptedException {
+        AtomicLong errors = new AtomicLong();
+        LatencyHistogram latencies = new LatencyHistogram();
+        long deadline = System.nanoTime() + RUN.toNanos();
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(uri).header(AUTHORITIES_HEADER, authorities).build();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        latencies.record(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+        return new Result(latencies.count(), errors.get(), latencies.percentile(0.99));
+    }
+
+    private static void report(String mode, Result result) {
+        System.out.printf("%-24s %8.0f req/s  p99 %6.1f ms  errors %d%n",
+                mode, result.requests() / (double) RUN.toSeconds(), result.p99Nanos() / 1e6, result.errors());
+    }
+
+    private record Result(long requests, long errors, long p99Nanos) {}
+
+    // Latencies shared by every client in 0.1 ms buckets up to the run length, the last bucket takes anything slower.
+    // A fixed 800 KB whatever the request count, where a sample per request would grow with the throughput.
+    private static final class LatencyHistogram {
+
+        private static final long BUCKET_NANOS = 100_000;
+
+        private final AtomicLongArray buckets = new AtomicLongArray((int) (RUN.toNanos() / BUCKET_NANOS) + 1);
+
+        void record(long nanos) {
+            buckets.incrementAndGet((int) Math.min(nanos / BUCKET_NANOS, buckets.length() - 1));
+        }
+
+        long count() {
+            long count = 0;
+            for (int bucket = 0; bucket < buckets.length(); bucket++) {
+                count += buckets.get(bucket);
+            }
+            return count;
+        }
+
+        // Upper bound of the bucket holding the percentile.
+        long percentile(double fraction) {
+            long rank = (long) Math.ceil(count() * fraction);
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets.length(); bucket++) {
+                seen += buckets.get(bucket);
+                if (seen >= rank && seen > 0) {
+                    return (bucket + 1) * BUCKET_NANOS;
+                }
+            }
+            return 0;
+        }
+    }
+}
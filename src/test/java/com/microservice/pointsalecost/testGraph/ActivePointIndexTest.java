@@ -0,0 +1,98 @@
+package com.microservice.pointsalecost.testGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.models.PointOfSale;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+
+public class ActivePointIndexTest {
+
+    @Test
+    public void testLoad() {
+        ActivePointIndex activePointIndex = new ActivePointIndex();
+        activePointIndex.load(List.of(new PointOfSale(1L, "CABA", true), new PointOfSale(2L, "GBA_1", false)));
+
+        assertTrue(activePointIndex.isActive(1L));
+        assertFalse(activePointIndex.isActive(2L));
+        assertFalse(activePointIndex.isActive(3L));
+        assertEquals(1, activePointIndex.count());
+    }
+
+    @Test
+    public void testLoad_ReplaysChangesMadeBeforeIt() {
+        ActivePointIndex activePointIndex = new ActivePointIndex();
+        activePointIndex.activate(3L);
+        activePointIndex.deactivate(1L);
+        assertFalse(activePointIndex.isLoaded());
+
+        activePointIndex.load(List.of(new PointOfSale(1L, "CABA", true), new PointOfSale(2L, "GBA_1", true)));
+
+        assertTrue(activePointIndex.isLoaded());
+        assertFalse(activePointIndex.isActive(1L));
+        assertTrue(activePointIndex.isActive(2L));
+        assertTrue(activePointIndex.isActive(3L));
+    }
+
+    @Test
+    public void testIdsAfter_PagesInIdOrder() {
+        ActivePointIndex activePointIndex = new ActivePointIndex();
+        activePointIndex.activateAll(List.of(9L, 2L, 5L, 7L));
+        activePointIndex.deactivate(5L);
+
+        assertEquals(List.of(2L, 7L), activePointIndex.idsAfter(0L, 2));
+        assertEquals(List.of(9L), activePointIndex.idsAfter(7L, 2));
+        assertEquals(List.of(), activePointIndex.idsAfter(9L, 2));
+        assertEquals(List.of(2L, 7L, 9L), activePointIndex.idsAfter(-1L, 10));
+    }
+
+    @Test
+    public void testDeactivateAll_NotifiesOnce() {
+        ActivePointIndex activePointIndex = new ActivePointIndex();
+        activePointIndex.activateAll(List.of(1L, 2L, 3L));
+        AtomicInteger changes = new AtomicInteger();
+        activePointIndex.onChange(changes::incrementAndGet);
+
+        activePointIndex.deactivateAll(List.of(1L, 3L, 8L));
+        activePointIndex.deactivateAll(List.of(8L));
+
+        assertEquals(List.of(2L), activePointIndex.idsAfter(-1L, 10));
+        assertEquals(1, changes.get());
+    }
+
+    @Test
+    public void testIdsBeyondTheIndexAreNeverActive() {
+        ActivePointIndex activePointIndex = new ActivePointIndex();
+        long large = Integer.MAX_VALUE + 1L;
+        activePointIndex.load(List.of(new PointOfSale(large, "CABA", true), new PointOfSale(2L, "GBA_1", true)));
+
+        activePointIndex.activate(Long.MAX_VALUE);
+        activePointIndex.activateAll(List.of(large, -1L, 3L));
+        activePointIndex.deactivate(-5L);
+        activePointIndex.deactivateAll(List.of(large));
+
+        assertFalse(activePointIndex.isActive(large));
+        assertFalse(activePointIndex.isActive(Long.MAX_VALUE));
+        assertFalse(activePointIndex.snapshot().test(-1L));
+        assertEquals(List.of(2L, 3L), activePointIndex.idsAfter(-1L, 10));
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterChanges() {
+        ActivePointIndex activePointIndex = new ActivePointIndex();
+        activePointIndex.activate(1L);
+
+        LongPredicate snapshot = activePointIndex.snapshot();
+        activePointIndex.deactivate(1L);
+        activePointIndex.update(new PointOfSale(2L, "GBA_1", true));
+
+        assertTrue(snapshot.test(1L));
+        assertFalse(snapshot.test(2L));
+        assertFalse(activePointIndex.isActive(1L));
+        assertTrue(activePointIndex.isActive(2L));
+    }
+}
@@ -0,0 +1,73 @@
+package com.microservice.pointsalecost.testGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.ComponentIndex;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+public class ComponentIndexTest {
+
+    private CostGraphEngine costGraphEngine;
+    private ActivePointIndex activePointIndex;
+    private ComponentIndex componentIndex;
+
+    @BeforeEach
+    public void setUp() {
+        costGraphEngine = new CostGraphEngine();
+        activePointIndex = new ActivePointIndex();
+        componentIndex = new ComponentIndex(costGraphEngine, activePointIndex);
+        activePointIndex.load(LongStream.rangeClosed(1, 6).mapToObj(id -> new PointOfSale(id, "P" + id, true)).toList());
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 1.0), new Cost(2L, 3L, 1.0), new Cost(4L, 5L, 1.0)));
+    }
+
+    @Test
+    public void testSeparatesComponents() {
+        assertTrue(componentIndex.connected(1L, 3L));
+        assertTrue(componentIndex.connected(4L, 5L));
+        assertFalse(componentIndex.connected(1L, 4L));
+        assertFalse(componentIndex.connected(1L, 6L));
+        assertFalse(componentIndex.connected(1L, 99L));
+        assertTrue(componentIndex.connected(6L, 6L));
+    }
+
+    @Test
+    public void testCostToIdBeyondTheIndex() {
+        costGraphEngine.addCost(new Cost(3L, 5_000_000_000L, 1.0));
+        costGraphEngine.removeCost(4L, 5L);
+
+        assertTrue(componentIndex.connected(1L, 3L));
+        assertFalse(componentIndex.connected(3L, 5_000_000_000L));
+    }
+
+    @Test
+    public void testAddedCostsMergeComponents() {
+        assertFalse(componentIndex.connected(3L, 5L));
+
+        costGraphEngine.addCost(new Cost(3L, 4L, 1.0));
+        assertTrue(componentIndex.connected(1L, 5L));
+
+        costGraphEngine.addCost(new Cost(6L, 7L, 1.0));
+        assertFalse(componentIndex.connected(6L, 7L), "Point 7 is not active");
+        activePointIndex.activate(7L);
+        assertTrue(componentIndex.connected(6L, 7L));
+    }
+
+    @Test
+    public void testRemovalsAndDeactivationsSplitComponents() {
+        costGraphEngine.removeCost(2L, 3L);
+        assertFalse(componentIndex.connected(1L, 3L));
+        assertTrue(componentIndex.connected(1L, 2L));
+
+        activePointIndex.deactivate(2L);
+        assertFalse(componentIndex.connected(1L, 2L));
+        assertTrue(componentIndex.connected(4L, 5L));
+    }
+}
@@ -0,0 +1,99 @@
+package com.microservice.pointsalecost.testGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.enums.SearchMode;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.ContractionHierarchy;
+import com.microservice.pointsalecost.graph.ContractionHierarchyManager;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.PathResult;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.function.LongPredicate;
+
+public class ContractionHierarchyTest {
+
+    @Test
+    public void testHierarchyMatchesDijkstraAndUnpacksValidPaths() {
+        Random random = new Random(7);
+        List<Cost> costs = new ArrayList<>();
+        for (long id = 2; id <= 400; id++) {
+            costs.add(new Cost(id, 1 + random.nextLong(id - 1), 1 + random.nextInt(40) * 1d));
+        }
+        for (int i = 0; i < 800; i++) {
+            long idA = 1 + random.nextInt(400);
+            long idB = 1 + random.nextInt(400);
+            if (idA != idB) {
+                costs.add(new Cost(idA, idB, 1 + random.nextInt(40) * 1d));
+            }
+        }
+        CostGraphEngine costGraphEngine = new CostGraphEngine();
+        costGraphEngine.load(costs);
+        Map<String, Double> amounts = new HashMap<>();
+        costs.forEach(cost -> amounts.put(Math.min(cost.getIdA(), cost.getIdB()) + "-" + Math.max(cost.getIdA(), cost.getIdB()), cost.getAmount()));
+        LongPredicate active = id -> id % 13 != 0;
+
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(costGraphEngine.snapshot(), active, 1L);
+
+        for (int i = 0; i < 300; i++) {
+            long from = 1 + random.nextInt(400);
+            long to = 1 + random.nextInt(400);
+            if (!active.test(from) || !active.test(to)) {
+                continue;
+            }
+            PathResult dijkstra = costGraphEngine.findPath(from, to, active, SearchMode.DIJKSTRA, null);
+            PathResult result = hierarchy.search(from, to, null);
+            if (dijkstra == null) {
+                assertNull(result, from + "->" + to);
+                continue;
+            }
+            assertNotNull(result, from + "->" + to);
+            assertEquals(dijkstra.totalCost(), result.totalCost(), 1e-9, from + "->" + to);
+
+            long[] path = result.path();
+            assertEquals(from, path[0]);
+            assertEquals(to, path[path.length - 1]);
+            double total = 0;
+            for (int step = 1; step < path.length; step++) {
+                assertTrue(active.test(path[step]));
+                Double amount = amounts.get(Math.min(path[step - 1], path[step]) + "-" + Math.max(path[step - 1], path[step]));
+                assertNotNull(amount, "No cost between " + path[step - 1] + " and " + path[step]);
+                total += amount;
+            }
+            assertEquals(result.totalCost(), total, 1e-9);
+        }
+    }
+
+    @Test
+    public void testManagerOnlyServesCurrentHierarchy() {
+        CostGraphEngine costGraphEngine = new CostGraphEngine();
+        ActivePointIndex activePointIndex = new ActivePointIndex();
+        List<Runnable> scheduled = new ArrayList<>();
+        Executor deferred = scheduled::add;
+        ContractionHierarchyManager manager = new ContractionHierarchyManager(costGraphEngine, activePointIndex, deferred, true);
+
+        activePointIndex.load(List.of(new PointOfSale(1L, "A", true), new PointOfSale(2L, "B", true), new PointOfSale(3L, "C", true)));
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 2.0), new Cost(2L, 3L, 3.0), new Cost(1L, 3L, 10.0)));
+        assertNull(manager.current());
+        assertEquals(1, scheduled.size(), "Changes before the rebuild starts are coalesced");
+
+        scheduled.remove(0).run();
+        ContractionHierarchy hierarchy = manager.current();
+        assertNotNull(hierarchy);
+        assertEquals(5.0, hierarchy.search(1L, 3L, null).totalCost());
+
+        activePointIndex.deactivate(2L);
+        assertNull(manager.current(), "A hierarchy built before the change is not served");
+        scheduled.remove(0).run();
+        assertEquals(10.0, manager.current().search(1L, 3L, null).totalCost());
+    }
+}
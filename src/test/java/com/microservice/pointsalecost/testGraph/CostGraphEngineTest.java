@@ -0,0 +1,158 @@
+package com.microservice.pointsalecost.testGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.graph.CostGraph;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.PathResult;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.CostID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CostGraphEngineTest {
+
+    private CostGraphEngine costGraphEngine;
+
+    @BeforeEach
+    public void setUp() {
+        costGraphEngine = new CostGraphEngine();
+        costGraphEngine.load(List.of(
+                new Cost(1L, 2L, 2d),
+                new Cost(1L, 3L, 3d),
+                new Cost(2L, 3L, 5d),
+                new Cost(2L, 4L, 10d),
+                new Cost(1L, 4L, 11d),
+                new Cost(4L, 5L, 5d),
+                new Cost(4L, 6L, 6d)
+        ));
+    }
+
+    @Test
+    public void testLoad() {
+        assertEquals(6, costGraphEngine.snapshot().nodeCount());
+        assertEquals(14, costGraphEngine.snapshot().edgeCount());
+    }
+
+    @Test
+    public void testLoad_ReplaysWritesMadeBeforeIt() {
+        CostGraphEngine engine = new CostGraphEngine();
+        engine.addCost(new Cost(1L, 2L, 7d));
+        engine.removeCost(2L, 3L);
+        assertFalse(engine.isLoaded());
+
+        //The warm-up read the rows before both writes.
+        engine.load(List.of(new Cost(1L, 2L, 1d), new Cost(2L, 3L, 5d), new Cost(3L, 4L, 2d)));
+
+        assertTrue(engine.isLoaded());
+        assertEquals(List.of(7d), engine.costsOf(1L).stream().map(Cost::getAmount).toList());
+        assertEquals(1, engine.costsOf(3L).size());
+    }
+
+    @Test
+    public void testFindPath() {
+        PathResult result = costGraphEngine.findPath(3L, 6L, id -> true);
+
+        assertNotNull(result);
+        assertArrayEquals(new long[]{3L, 1L, 4L, 6L}, result.path());
+        assertEquals(20d, result.totalCost());
+    }
+
+    @Test
+    public void testFindPath_SkipsInactivePoints() {
+        PathResult result = costGraphEngine.findPath(3L, 6L, id -> id != 1L);
+
+        assertNotNull(result);
+        assertArrayEquals(new long[]{3L, 2L, 4L, 6L}, result.path());
+        assertEquals(21d, result.totalCost());
+    }
+
+    @Test
+    public void testFindPath_Unreachable() {
+        costGraphEngine.addCost(new Cost(8L, 9L, 11d));
+
+        assertNull(costGraphEngine.findPath(1L, 9L, id -> true));
+        assertNull(costGraphEngine.findPath(1L, 99L, id -> true));
+    }
+
+    @Test
+    public void testAddCost() {
+        costGraphEngine.addCost(new Cost(6L, 3L, 1d));
+
+        PathResult result = costGraphEngine.findPath(3L, 6L, id -> true);
+
+        assertArrayEquals(new long[]{3L, 6L}, result.path());
+        assertEquals(1d, result.totalCost());
+    }
+
+    @Test
+    public void testWritesAreRebuiltOnceOnTheNextRead() {
+        CostGraph before = costGraphEngine.snapshot();
+
+        costGraphEngine.addCost(new Cost(6L, 3L, 1d));
+        costGraphEngine.addCost(new Cost(5L, 7L, 1d));
+        costGraphEngine.removeCost(1L, 4L);
+        CostGraph after = costGraphEngine.snapshot();
+
+        assertEquals(14, before.edgeCount());
+        assertEquals(16, after.edgeCount());
+        assertEquals(7, after.nodeCount());
+        assertSame(after, costGraphEngine.snapshot());
+    }
+
+    @Test
+    public void testRemoveCost() {
+        costGraphEngine.removeCost(4L, 1L);
+
+        PathResult result = costGraphEngine.findPath(3L, 6L, id -> true);
+
+        assertArrayEquals(new long[]{3L, 2L, 4L, 6L}, result.path());
+        assertEquals(21d, result.totalCost());
+    }
+
+    @Test
+    public void testRemoveCosts_RebuildsOnce() {
+        AtomicInteger changes = new AtomicInteger();
+        costGraphEngine.onChange(changes::incrementAndGet);
+
+        costGraphEngine.removeCosts(List.of(new CostID(4L, 1L), new CostID(2L, 4L), new CostID(8L, 9L)));
+
+        assertNull(costGraphEngine.findPath(3L, 6L, id -> true));
+        assertEquals(1, changes.get());
+    }
+
+    @Test
+    public void testCostsOf() {
+        costGraphEngine.removeCost(1L, 4L);
+
+        List<Cost> costs = costGraphEngine.costsOf(4L);
+
+        assertEquals(3, costs.size());
+        assertTrue(costs.stream().allMatch(cost -> cost.getIdA() == 4L || cost.getIdB() == 4L));
+        assertTrue(costGraphEngine.costsOf(99L).isEmpty());
+    }
+
+    @Test
+    public void testListenersRunOutsideTheWriteLock() throws Exception {
+        CompletableFuture<Void> otherWriter = new CompletableFuture<>();
+        costGraphEngine.onCostAdded(cost -> {
+            if (cost.getIdA() == 7L) {
+                otherWriter.complete(null);
+                return;
+            }
+            //A writer on another thread, as ComponentIndex or another request could be, must not wait for this one.
+            Thread.ofVirtual().start(() -> costGraphEngine.addCost(new Cost(7L, 8L, 1d)));
+            assertDoesNotThrow(() -> otherWriter.get(5, TimeUnit.SECONDS));
+        });
+
+        costGraphEngine.addCost(new Cost(6L, 3L, 1d));
+
+        otherWriter.get(5, TimeUnit.SECONDS);
+        assertEquals(1, costGraphEngine.costsOf(8L).size());
+    }
+}
@@ -0,0 +1,95 @@
+package com.microservice.pointsalecost.testGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.enums.SearchMode;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.PathResult;
+import com.microservice.pointsalecost.graph.SearchStats;
+import com.microservice.pointsalecost.models.Cost;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+public class PathSearchModesTest {
+
+    private static final LongPredicate ALL_ACTIVE = id -> true;
+
+    @Test
+    public void testAllModesFindTheSameCost() {
+        Random random = new Random(42);
+        List<Cost> costs = new ArrayList<>();
+        for (long id = 2; id <= 300; id++) {
+            costs.add(new Cost(id, 1 + random.nextLong(id - 1), 1 + random.nextInt(50) * 1d));
+        }
+        for (int i = 0; i < 600; i++) {
+            long idA = 1 + random.nextInt(300);
+            long idB = 1 + random.nextInt(300);
+            if (idA != idB) {
+                costs.add(new Cost(idA, idB, 1 + random.nextInt(50) * 1d));
+            }
+        }
+        CostGraphEngine costGraphEngine = new CostGraphEngine(SearchMode.DIJKSTRA, 4, new long[0]);
+        costGraphEngine.load(costs);
+        LongPredicate active = id -> id % 17 != 0;
+
+        for (int i = 0; i < 200; i++) {
+            long from = 1 + random.nextInt(300);
+            long to = 1 + random.nextInt(300);
+            if (!active.test(from) || !active.test(to)) {
+                continue;
+            }
+            PathResult dijkstra = costGraphEngine.findPath(from, to, active, SearchMode.DIJKSTRA, null);
+            for (SearchMode mode : List.of(SearchMode.BIDIRECTIONAL, SearchMode.ALT)) {
+                PathResult other = costGraphEngine.findPath(from, to, active, mode, null);
+                if (dijkstra == null) {
+                    assertNull(other, mode + " " + from + "->" + to);
+                    continue;
+                }
+                assertNotNull(other, mode + " " + from + "->" + to);
+                assertEquals(dijkstra.totalCost(), other.totalCost(), 1e-9, mode + " " + from + "->" + to);
+                assertEquals(from, other.path()[0]);
+                assertEquals(to, other.path()[other.path().length - 1]);
+            }
+        }
+    }
+
+    @Test
+    public void testGoalDirectedModesSettleFewerPoints() {
+        int side = 80;
+        Random random = new Random(7);
+        List<Cost> costs = new ArrayList<>();
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                long id = row * side + column + 1;
+                if (column + 1 < side) {
+                    costs.add(new Cost(id, id + 1, 1 + random.nextInt(10) * 1d));
+                }
+                if (row + 1 < side) {
+                    costs.add(new Cost(id, id + side, 1 + random.nextInt(10) * 1d));
+                }
+            }
+        }
+        CostGraphEngine costGraphEngine = new CostGraphEngine(SearchMode.DIJKSTRA, 8, new long[0]);
+        costGraphEngine.load(costs);
+
+        SearchStats dijkstra = new SearchStats();
+        SearchStats bidirectional = new SearchStats();
+        SearchStats alt = new SearchStats();
+        for (int i = 0; i < 50; i++) {
+            long from = 1 + random.nextInt(side * side);
+            long to = 1 + random.nextInt(side * side);
+            double expected = costGraphEngine.findPath(from, to, ALL_ACTIVE, SearchMode.DIJKSTRA, dijkstra).totalCost();
+            assertEquals(expected, costGraphEngine.findPath(from, to, ALL_ACTIVE, SearchMode.BIDIRECTIONAL, bidirectional).totalCost(), 1e-9);
+            assertEquals(expected, costGraphEngine.findPath(from, to, ALL_ACTIVE, SearchMode.ALT, alt).totalCost(), 1e-9);
+        }
+
+        assertTrue(bidirectional.settledNodes() < dijkstra.settledNodes(),
+                "bidirectional " + bidirectional.settledNodes() + " vs dijkstra " + dijkstra.settledNodes());
+        assertTrue(alt.settledNodes() * 3 < dijkstra.settledNodes(),
+                "alt " + alt.settledNodes() + " vs dijkstra " + dijkstra.settledNodes());
+    }
+}
@@ -0,0 +1,62 @@
+package com.microservice.pointsalecost.testGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.enums.SearchMode;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.PathResult;
+import com.microservice.pointsalecost.models.Cost;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+public class SearchWorkspaceTest {
+
+    private static final LongPredicate ALL_ACTIVE = id -> true;
+
+    @Test
+    public void testReusedWorkspaceDoesNotLeakStateBetweenQueries() {
+        CostGraphEngine costGraphEngine = new CostGraphEngine();
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 2.0), new Cost(2L, 3L, 2.0), new Cost(1L, 3L, 10.0), new Cost(4L, 5L, 1.0)));
+
+        for (int i = 0; i < 3; i++) {
+            for (SearchMode mode : List.of(SearchMode.DIJKSTRA, SearchMode.BIDIRECTIONAL, SearchMode.ALT)) {
+                PathResult path = costGraphEngine.findPath(1L, 3L, ALL_ACTIVE, mode, null);
+                assertArrayEquals(new long[]{1L, 2L, 3L}, path.path(), mode.name());
+                assertEquals(4.0, path.totalCost());
+                assertNull(costGraphEngine.findPath(1L, 5L, ALL_ACTIVE, mode, null), mode.name());
+                assertArrayEquals(new long[]{1L, 3L}, costGraphEngine.findPath(1L, 3L, id -> id != 2L, mode, null).path());
+            }
+        }
+    }
+
+    @Test
+    public void testWorkspaceFollowsGraphGrowth() {
+        CostGraphEngine costGraphEngine = new CostGraphEngine();
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 1.0)));
+        assertEquals(1.0, costGraphEngine.findPath(1L, 2L, ALL_ACTIVE).totalCost());
+
+        // A chain with random shortcuts exercises decrease-key on a much larger index space.
+        Random random = new Random(3);
+        List<Cost> costs = new ArrayList<>();
+        for (long id = 1; id < 2000; id++) {
+            costs.add(new Cost(id, id + 1, 1.0));
+        }
+        for (int i = 0; i < 1000; i++) {
+            long idA = 1 + random.nextInt(2000);
+            long idB = 1 + random.nextInt(2000);
+            if (idA != idB) {
+                costs.add(new Cost(idA, idB, Math.abs(idA - idB) * (0.5 + random.nextDouble())));
+            }
+        }
+        costGraphEngine.load(costs);
+        double expected = costGraphEngine.findPath(1L, 2000L, ALL_ACTIVE, SearchMode.DIJKSTRA, null).totalCost();
+        assertTrue(expected <= 1999.0);
+        assertEquals(expected, costGraphEngine.findPath(1L, 2000L, ALL_ACTIVE, SearchMode.BIDIRECTIONAL, null).totalCost(), 1e-9);
+        assertEquals(expected, costGraphEngine.findPath(1L, 2000L, ALL_ACTIVE, SearchMode.ALT, null).totalCost(), 1e-9);
+        assertEquals(expected, costGraphEngine.findPath(2000L, 1L, ALL_ACTIVE, SearchMode.DIJKSTRA, null).totalCost(), 1e-9);
+    }
+}
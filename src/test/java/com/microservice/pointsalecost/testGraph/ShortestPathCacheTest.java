@@ -0,0 +1,92 @@
+package com.microservice.pointsalecost.testGraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import com.microservice.pointsalecost.graph.ShortestPathCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ShortestPathCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private ShortestPathCache shortestPathCache;
+    private AtomicInteger loads;
+
+    private final CostMinimumDTO path = new CostMinimumDTO(List.of(
+            new PointOfSaleResponseDTO(1L, "CABA", true),
+            new PointOfSaleResponseDTO(2L, "GBA_1", true)
+    ), 2d);
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        shortestPathCache = new ShortestPathCache(2, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private CostMinimumDTO load() {
+        loads.incrementAndGet();
+        return path;
+    }
+
+    @Test
+    public void testHitForUnorderedPair() {
+        shortestPathCache.get(1L, 2L, this::load);
+        CostMinimumDTO reversed = shortestPathCache.get(2L, 1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(2L, reversed.pointOfSaleResponse().get(0).id());
+        assertEquals(1L, reversed.pointOfSaleResponse().get(1).id());
+        assertEquals(1d, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1d, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void testBumpVersionInvalidates() {
+        shortestPathCache.get(1L, 2L, this::load);
+        shortestPathCache.bumpVersion();
+        shortestPathCache.get(1L, 2L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testCachesMissingPath() {
+        AtomicInteger nullLoads = new AtomicInteger();
+        shortestPathCache.get(1L, 9L, () -> { nullLoads.incrementAndGet(); return null; });
+
+        assertNull(shortestPathCache.get(9L, 1L, () -> { nullLoads.incrementAndGet(); return null; }));
+        assertEquals(1, nullLoads.get());
+    }
+
+    @Test
+    public void testReactiveGetSharesTheEntries() {
+        shortestPathCache.get(1L, 2L, this::load);
+
+        assertEquals(path, shortestPathCache.get(1L, 2L, Mono.fromCallable(this::load)).block());
+        assertNull(shortestPathCache.get(1L, 9L, Mono.<CostMinimumDTO>empty()).block());
+        assertNull(shortestPathCache.get(9L, 1L, Mono.fromCallable(this::load)).block());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        shortestPathCache.get(1L, 2L, this::load);
+        shortestPathCache.get(1L, 3L, this::load);
+        shortestPathCache.get(1L, 2L, this::load);
+        shortestPathCache.get(1L, 4L, this::load);
+        shortestPathCache.get(1L, 2L, this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(2, shortestPathCache.size());
+        assertEquals(1d, meterRegistry.get("cache.evictions").functionCounter().count());
+    }
+}
@@ -0,0 +1,60 @@
+package com.microservice.pointsalecost.testRepositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.repositories.CostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Comparator;
+import java.util.List;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:costs",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "eureka.client.enabled=false"})
+public class CostRepositoryTest {
+
+    @Autowired
+    private CostRepository costRepository;
+
+    @BeforeEach
+    public void setUp() {
+        costRepository.saveAll(List.of(
+                new Cost(1L, 2L, 2d),
+                new Cost(3L, 1L, 5d),
+                new Cost(2L, 3L, 7d),
+                new Cost(4L, 5L, 1d)));
+    }
+
+    @Test
+    public void testFindDirectCostsOfAll_OnePoint() {
+        assertEquals(List.of(
+                new CostResponseDTO(1L, 2L, 2d),
+                new CostResponseDTO(3L, 1L, 5d)), sorted(costRepository.findDirectCostsOfAll(List.of(1L))));
+    }
+
+    @Test
+    public void testFindDirectCostsOfAll_CostBetweenTwoPointsReturnedOnce() {
+        assertEquals(List.of(
+                new CostResponseDTO(1L, 2L, 2d),
+                new CostResponseDTO(2L, 3L, 7d),
+                new CostResponseDTO(3L, 1L, 5d)), sorted(costRepository.findDirectCostsOfAll(List.of(1L, 2L))));
+    }
+
+    @Test
+    public void testFindDirectCostsOfAll_UnknownPoints() {
+        assertTrue(costRepository.findDirectCostsOfAll(List.of(8L, 9L)).isEmpty());
+    }
+
+    private List<CostResponseDTO> sorted(List<CostResponseDTO> costs) {
+        return costs.stream().sorted(Comparator.comparing(CostResponseDTO::idA).thenComparing(CostResponseDTO::idB)).toList();
+    }
+}
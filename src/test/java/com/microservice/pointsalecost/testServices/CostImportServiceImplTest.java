@@ -0,0 +1,139 @@
+package com.microservice.pointsalecost.testServices;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.NetworkSync;
+import com.microservice.pointsalecost.cache.RedisKeyLayout;
+import com.microservice.pointsalecost.dtos.CostDTO.CostImportErrorDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostImportReportDTO;
+import com.microservice.pointsalecost.enums.DataFormat;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.ShortestPathCache;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.CostID;
+import com.microservice.pointsalecost.repositories.CostRepository;
+import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
+import com.microservice.pointsalecost.services.Impl.CostImportServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class CostImportServiceImplTest {
+
+    @Mock
+    private PointOfSaleRepository pointOfSaleRepository;
+
+    @Mock
+    private CostRepository costRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private CostGraphEngine costGraphEngine;
+
+    private ShortestPathCache shortestPathCache;
+
+    private CostImportServiceImpl costImportService;
+
+    @BeforeEach
+    public void setUp() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(pointOfSaleRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        costGraphEngine = new CostGraphEngine();
+        shortestPathCache = new ShortestPathCache(100, new SimpleMeterRegistry());
+        NearCache nearCache = new NearCache(redisTemplate, new RedisKeyLayout(64), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), "invalidations", 1000);
+        costImportService = new CostImportServiceImpl(pointOfSaleRepository, costRepository, entityManager, transactionManager,
+                nearCache, new NetworkSync(redisTemplate, nearCache, costGraphEngine, new ActivePointIndex(), shortestPathCache, new SimpleMeterRegistry(), 1000),
+                new ObjectMapper(), 2);
+    }
+
+    @Test
+    public void testImportCsv_ReportsInvalidRowsByLine() throws Exception {
+        when(costRepository.findAllById(anyIterable())).thenReturn(List.of(new Cost(4L, 3L, 1d)));
+        String csv = """
+                idA,idB,amount
+                1,2,2.5
+                1,1,3
+                2,9,4
+                2,1,5
+                3,4,6
+                not,a,row
+                1,3,7
+                """;
+
+        CostImportReportDTO report = costImportService.importCosts(stream(csv), DataFormat.CSV);
+
+        assertEquals(7, report.rows());
+        assertEquals(2, report.imported());
+        assertEquals(5, report.rejected());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), report.errors().stream().map(CostImportErrorDTO::line).toList());
+        assertEquals("The cost between these two points already exists in database.", report.errors().get(3).message());
+        verify(entityManager, times(2)).persist(any(Cost.class));
+        verify(entityManager, times(2)).flush();
+        assertEquals(2, costGraphEngine.costsOf(1L).size());
+        assertEquals(1, shortestPathCache.version());
+    }
+
+    @Test
+    public void testImportNdjson() throws Exception {
+        when(costRepository.findAllById(anyIterable())).thenReturn(List.of());
+        String ndjson = """
+                {"idA":1,"idB":2,"amount":2.0}
+                {"idA":2,"idB":3,"amount":-1}
+                {"idA":2,"idB":3,"amount":1.5}
+                """;
+
+        CostImportReportDTO report = costImportService.importCosts(stream(ndjson), DataFormat.NDJSON);
+
+        assertEquals(2, report.imported());
+        assertEquals(List.of(new CostImportErrorDTO(2, "The amount cannot be negative.")), report.errors());
+        verify(costRepository).findAllById(List.of(new CostID(1L, 2L), new CostID(2L, 1L), new CostID(2L, 3L), new CostID(3L, 2L)));
+        verify(hashOperations, atLeastOnce()).putAll(anyString(), anyMap());
+    }
+
+    @Test
+    public void testImportCsv_RejectsNonFiniteAmounts() throws Exception {
+        String csv = """
+                1,2,NaN
+                2,3,Infinity
+                """;
+
+        CostImportReportDTO report = costImportService.importCosts(stream(csv), DataFormat.CSV);
+
+        assertEquals(0, report.imported());
+        assertEquals(List.of(new CostImportErrorDTO(1, "The amount must be a finite number."),
+                new CostImportErrorDTO(2, "The amount must be a finite number.")), report.errors());
+        verifyNoInteractions(costRepository);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
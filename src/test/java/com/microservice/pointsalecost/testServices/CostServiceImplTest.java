@@ -2,14 +2,32 @@ package com.microservice.pointsalecost.testServices;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
+import com.microservice.pointsalecost.cache.CacheInvalidation;
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.NetworkSync;
+import com.microservice.pointsalecost.cache.RedisKeyLayout;
+import com.microservice.pointsalecost.cache.NegativeCache;
+import com.microservice.pointsalecost.dtos.CostDTO.CostBatchResultDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostPairDTO;
 import com.microservice.pointsalecost.dtos.CostDTO.CostRequestDTO;
 import com.microservice.pointsalecost.dtos.CostDTO.CostResponseDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostTreeDTO;
+import com.microservice.pointsalecost.dtos.CostDTO.CostTreeEntryDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
 import com.microservice.pointsalecost.exceptions.CostAlreadyExistsException;
 import com.microservice.pointsalecost.exceptions.CostNotFoundException;
+import com.microservice.pointsalecost.exceptions.InactivePointOfSaleException;
 import com.microservice.pointsalecost.exceptions.InvalidCostException;
 import com.microservice.pointsalecost.exceptions.PointOfSaleNotFoundException;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.ComponentIndex;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.ContractionHierarchyManager;
+import com.microservice.pointsalecost.graph.ShortestPathCache;
 import com.microservice.pointsalecost.mappers.CostMapper;
 import com.microservice.pointsalecost.mappers.PointOfSaleMapper;
 import com.microservice.pointsalecost.models.Cost;
@@ -18,6 +36,7 @@ import com.microservice.pointsalecost.models.PointOfSale;
 import com.microservice.pointsalecost.repositories.CostRepository;
 import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
 import com.microservice.pointsalecost.services.Impl.CostServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,9 +44,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 @ExtendWith(MockitoExtension.class)
 public class CostServiceImplTest {
@@ -47,19 +70,34 @@ public class CostServiceImplTest {
     @Mock
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
     @Mock
     private HashOperations<String, Object, Object> pointOfSaleHashOperations;
 
     @Mock
     private HashOperations<String, Object, Object> costHashOperations;
 
+    CostGraphEngine costGraphEngine;
+
+    ActivePointIndex activePointIndex;
+
     CostServiceImpl costService;
 
     @BeforeEach
     public void setUp() {
         when(redisTemplate.opsForHash()).thenReturn(pointOfSaleHashOperations);
         when(redisTemplate.opsForHash()).thenReturn(costHashOperations);
-        costService = new CostServiceImpl(costRepository, pointOfSaleRepository, costMapper, pointOfSaleMapper, redisTemplate);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        costGraphEngine = new CostGraphEngine();
+        activePointIndex = new ActivePointIndex();
+        NearCache nearCache = new NearCache(redisTemplate, new RedisKeyLayout(64), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), "invalidations", 1000);
+        ShortestPathCache shortestPathCache = new ShortestPathCache(100, new SimpleMeterRegistry());
+        costService = new CostServiceImpl(costRepository, pointOfSaleRepository, costMapper, pointOfSaleMapper, nearCache, new NegativeCache(redisTemplate, Duration.ofSeconds(30)), costGraphEngine, activePointIndex, shortestPathCache,
+                new ContractionHierarchyManager(costGraphEngine, activePointIndex, Runnable::run, false), new ComponentIndex(costGraphEngine, activePointIndex),
+                new NetworkSync(redisTemplate, nearCache, costGraphEngine, activePointIndex, shortestPathCache, new SimpleMeterRegistry(), 1000),
+                ForkJoinPool.commonPool());
     }
 
     @Test
@@ -82,6 +120,8 @@ public class CostServiceImplTest {
         assertEquals(2L, result.idB());
         assertEquals(15.50, result.amount());
         verify(costHashOperations, times(1)).put(anyString(), anyString(), any(Cost.class));
+        verify(redisTemplate).convertAndSend(eq("invalidations"), argThat(message ->
+                message instanceof CacheInvalidation change && change.change() == CacheInvalidation.Change.COSTS_ADDED));
     }
 
     @Test
@@ -127,6 +167,8 @@ public class CostServiceImplTest {
 
         verify(costHashOperations, times(1)).delete(anyString(), anyString());
         verify(costRepository, times(1)).deleteById(any(CostID.class));
+        verify(redisTemplate).convertAndSend(eq("invalidations"), argThat(message ->
+                message instanceof CacheInvalidation change && change.change() == CacheInvalidation.Change.COSTS_REMOVED));
     }
 
     @Test
@@ -147,7 +189,7 @@ public class CostServiceImplTest {
         cost2.setId(new CostID(2L, 3L));
         cost2.setAmount(20.00);
 
-        when(costHashOperations.entries(anyString())).thenReturn(Map.of("1-2", cost1, "2-3", cost2));
+        costGraphEngine.load(List.of(cost1, cost2));
         when(costMapper.toCostResponseDTO(cost1)).thenReturn(new CostResponseDTO(1L, 2L, 15.50));
         //when(costMapper.toCostResponseDTO(cost2)).thenReturn(new CostResponseDTO(2L, 3L, 20.00));
 
@@ -159,6 +201,17 @@ public class CostServiceImplTest {
         assertEquals(15.50, result.get(0).amount());
     }
 
+    @Test
+    public void testDirectCostFromOnePoint_GraphNotLoaded() {
+        when(costRepository.findDirectCostsOfAll(List.of(1L))).thenReturn(List.of(new CostResponseDTO(1L, 2L, 15.50)));
+
+        List<CostResponseDTO> result = costService.directCostFromOnePoint(1L);
+
+        assertEquals(1, result.size());
+        verifyNoInteractions(costMapper);
+        verify(costHashOperations, never()).entries(anyString());
+    }
+
     @Test
     public void testValidateCostNotExists_CostExistsInCache() {
         CostRequestDTO costRequestDTO = new CostRequestDTO(1L, 2L, 15.50);
@@ -201,6 +254,149 @@ public class CostServiceImplTest {
         assertDoesNotThrow(() -> costService.validatePointsExist(dto));
     }
 
+    @Test
+    public void testMinimumCostPath() {
+        PointOfSale point1 = new PointOfSale(1L, "Point1", true);
+        PointOfSale point2 = new PointOfSale(2L, "Point2", true);
+        PointOfSale point3 = new PointOfSale(3L, "Point3", true);
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 2d), new Cost(2L, 3L, 5d), new Cost(1L, 3L, 10d)));
+        activePointIndex.load(List.of(point1, point2, point3));
+
+        when(costHashOperations.multiGet(anyString(), anyCollection())).thenReturn(List.of(point1, point2, point3));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(any(PointOfSale.class)))
+                .thenAnswer(invocation -> {
+                    PointOfSale pointOfSale = invocation.getArgument(0);
+                    return new PointOfSaleResponseDTO(pointOfSale.getId(), pointOfSale.getName(), pointOfSale.isActive());
+                });
+
+        CostMinimumDTO result = costService.minimumCostPath(1L, 3L);
+
+        assertEquals(7d, result.totalCost());
+        assertEquals(List.of(1L, 2L, 3L), result.pointOfSaleResponse().stream().map(PointOfSaleResponseDTO::id).toList());
+        verify(costHashOperations, times(1)).multiGet(anyString(), anyCollection());
+        verify(costHashOperations, never()).hasKey(anyString(), anyString());
+    }
+
+    @Test
+    public void testMinimumCostPath_BeforeWarmUpReadsTheDatabase() {
+        PointOfSale point1 = new PointOfSale(1L, "Point1", true);
+        PointOfSale point3 = new PointOfSale(3L, "Point3", true);
+        when(pointOfSaleRepository.findActiveIds()).thenReturn(List.of(1L, 3L));
+        when(costRepository.findDirectCostsOfAll(anyCollection())).thenReturn(List.of(
+                new CostResponseDTO(1L, 2L, 2d), new CostResponseDTO(2L, 3L, 5d), new CostResponseDTO(1L, 3L, 10d)));
+        when(costHashOperations.multiGet(anyString(), anyCollection())).thenReturn(List.of(point1, point3));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(any(PointOfSale.class)))
+                .thenAnswer(invocation -> {
+                    PointOfSale pointOfSale = invocation.getArgument(0);
+                    return new PointOfSaleResponseDTO(pointOfSale.getId(), pointOfSale.getName(), pointOfSale.isActive());
+                });
+
+        CostMinimumDTO result = costService.minimumCostPath(1L, 3L);
+
+        //Point 2 is inactive in the database, so the direct cost is the only path.
+        assertEquals(10d, result.totalCost());
+        assertThrows(InactivePointOfSaleException.class, () -> costService.minimumCostPath(1L, 2L));
+    }
+
+    @Test
+    public void testMinimumCostPath_InactivePoint() {
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 2d)));
+        activePointIndex.load(List.of(new PointOfSale(1L, "Point1", true), new PointOfSale(2L, "Point2", false)));
+
+        assertThrows(InactivePointOfSaleException.class, () -> costService.minimumCostPath(1L, 2L));
+    }
+
+    @Test
+    public void testMinimumCostTree() {
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 2d), new Cost(2L, 3L, 5d), new Cost(1L, 3L, 10d), new Cost(4L, 5L, 1d)));
+        activePointIndex.load(List.of(
+                new PointOfSale(1L, "Point1", true),
+                new PointOfSale(2L, "Point2", true),
+                new PointOfSale(3L, "Point3", true),
+                new PointOfSale(4L, "Point4", true)));
+
+        CostTreeDTO full = costService.minimumCostTree(1L, false);
+        CostTreeDTO compact = costService.minimumCostTree(1L, true);
+
+        assertEquals(List.of(
+                new CostTreeEntryDTO(1L, 0d, null),
+                new CostTreeEntryDTO(2L, 2d, 1L),
+                new CostTreeEntryDTO(3L, 7d, 2L)), full.points());
+        assertEquals(List.of(
+                new CostTreeEntryDTO(1L, 0d, null),
+                new CostTreeEntryDTO(2L, 2d, null),
+                new CostTreeEntryDTO(3L, 7d, null)), compact.points());
+        assertThrows(InactivePointOfSaleException.class, () -> costService.minimumCostTree(5L, false));
+    }
+
+    @Test
+    public void testMinimumCostPathBatch() {
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 2d), new Cost(2L, 3L, 5d), new Cost(1L, 3L, 10d), new Cost(4L, 5L, 1d)));
+        activePointIndex.load(List.of(
+                new PointOfSale(1L, "Point1", true),
+                new PointOfSale(2L, "Point2", true),
+                new PointOfSale(3L, "Point3", true),
+                new PointOfSale(4L, "Point4", true),
+                new PointOfSale(5L, "Point5", false)));
+
+        List<CostBatchResultDTO> results = costService.minimumCostPathBatch(List.of(
+                new CostPairDTO(1L, 3L),
+                new CostPairDTO(1L, 2L),
+                new CostPairDTO(3L, 1L),
+                new CostPairDTO(1L, 4L),
+                new CostPairDTO(4L, 5L)));
+
+        assertEquals(5, results.size());
+        assertEquals(7d, results.get(0).totalCost());
+        assertEquals(List.of(1L, 2L, 3L), results.get(0).path());
+        assertEquals(2d, results.get(1).totalCost());
+        assertEquals(List.of(3L, 2L, 1L), results.get(2).path());
+        assertNull(results.get(3).totalCost());
+        assertEquals("No Minimum Cost Path Found", results.get(3).message());
+        assertNull(results.get(4).totalCost());
+        assertEquals("Points of sales are inactive or do not exist.", results.get(4).message());
+    }
+
+    @Test
+    public void testMinimumCostPathBatch_BeforeWarmUpReadsOneQueryPerRing() {
+        when(pointOfSaleRepository.findActiveIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        List<CostResponseDTO> costs = List.of(
+                new CostResponseDTO(1L, 3L, 1d), new CostResponseDTO(2L, 3L, 2d), new CostResponseDTO(3L, 4L, 3d));
+        when(costRepository.findDirectCostsOfAll(List.of(1L, 4L, 2L))).thenReturn(costs);
+        when(costRepository.findDirectCostsOfAll(List.of(3L))).thenReturn(costs);
+
+        List<CostBatchResultDTO> results = costService.minimumCostPathBatch(List.of(
+                new CostPairDTO(1L, 4L),
+                new CostPairDTO(2L, 4L)));
+
+        assertEquals(4d, results.get(0).totalCost());
+        assertEquals(List.of(1L, 3L, 4L), results.get(0).path());
+        assertEquals(5d, results.get(1).totalCost());
+        verify(costRepository, times(2)).findDirectCostsOfAll(anyCollection());
+        verify(costRepository, never()).findAll();
+    }
+
+    @Test
+    public void testObtainPointOfSale_UnknownIdIsMarked() {
+        when(pointOfSaleRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertNull(costService.obtainPointOfSale(99L));
+
+        verify(valueOperations).set(eq("point_of_sale:missing:99"), eq("absent"), any(Duration.class));
+    }
+
+    @Test
+    public void testObtainPointOfSale_MarkerSkipsDatabase() {
+        PointOfSale inactive = new PointOfSale(7L, "Salta", false);
+        when(valueOperations.get("point_of_sale:missing:7")).thenReturn(inactive);
+        when(valueOperations.get("point_of_sale:missing:99")).thenReturn("absent");
+
+        assertEquals(inactive, costService.obtainPointOfSale(7L));
+        assertNull(costService.obtainPointOfSale(99L));
+
+        verify(pointOfSaleRepository, never()).findById(anyLong());
+    }
+
     @Test
     void testIsPointOfSaleValid() {
         PointOfSale validPoint = new PointOfSale(1L, "Point1", true);
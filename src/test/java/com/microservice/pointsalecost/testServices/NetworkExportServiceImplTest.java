@@ -0,0 +1,115 @@
+package com.microservice.pointsalecost.testServices;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.pointsalecost.enums.DataFormat;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import com.microservice.pointsalecost.repositories.CostRepository;
+import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
+import com.microservice.pointsalecost.services.Impl.NetworkExportServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+public class NetworkExportServiceImplTest {
+
+    @Mock
+    private PointOfSaleRepository pointOfSaleRepository;
+
+    @Mock
+    private CostRepository costRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NetworkExportServiceImpl networkExportService;
+
+    @BeforeEach
+    public void setUp() {
+        networkExportService = new NetworkExportServiceImpl(pointOfSaleRepository, costRepository, entityManager, transactionManager,
+                new ObjectMapper());
+    }
+
+    @Test
+    public void testExportPointsOfSaleCsv_QuotesNamesAndClosesTheCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        PointOfSale first = new PointOfSale(1L, "CABA", true);
+        PointOfSale second = new PointOfSale(2L, "Quilmes, \"Sur\"", true);
+        when(pointOfSaleRepository.streamActive()).thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = networkExportService.exportPointsOfSale(output, DataFormat.CSV, null);
+
+        assertEquals(2, written);
+        assertEquals("id,name,active\n1,CABA,true\n2,\"Quilmes, \"\"Sur\"\"\",true\n", output.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    public void testExportPointsOfSaleSince_IncludesDeactivatedPoints() throws Exception {
+        Instant since = Instant.parse("2026-01-01T00:00:00Z");
+        when(pointOfSaleRepository.streamModifiedSince(since)).thenReturn(Stream.of(new PointOfSale(4L, "Moron", false)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        networkExportService.exportPointsOfSale(output, DataFormat.NDJSON, since);
+
+        assertEquals("{\"id\":4,\"name\":\"Moron\",\"active\":false}\n", output.toString(StandardCharsets.UTF_8));
+        verify(pointOfSaleRepository, never()).streamActive();
+    }
+
+    @Test
+    public void testExportCosts_ReadsOnlyCostsBetweenActivePoints() throws Exception {
+        when(costRepository.streamBetweenActivePoints()).thenReturn(Stream.of(new Cost(1L, 2L, 2.5), new Cost(2L, 3L, 1d)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = networkExportService.exportCosts(output, DataFormat.CSV, null);
+
+        assertEquals(2, written);
+        assertEquals("idA,idB,amount\n1,2,2.5\n2,3,1.0\n", output.toString(StandardCharsets.UTF_8));
+        verify(entityManager, times(2)).detach(any(Cost.class));
+    }
+
+    @Test
+    public void testExportCostsNdjsonSince() throws Exception {
+        Instant since = Instant.parse("2026-01-01T00:00:00Z");
+        when(costRepository.streamBetweenActivePointsModifiedSince(since)).thenReturn(Stream.of(new Cost(1L, 3L, 7d)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        networkExportService.exportCosts(output, DataFormat.NDJSON, since);
+
+        assertEquals("{\"idA\":1,\"idB\":3,\"amount\":7.0}\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testExportCostsEmpty_WritesOnlyTheHeader() throws Exception {
+        when(costRepository.streamBetweenActivePoints()).thenReturn(Stream.empty());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, networkExportService.exportCosts(output, DataFormat.CSV, null));
+        assertEquals("idA,idB,amount\n", output.toString(StandardCharsets.UTF_8));
+        assertFalse(output.toString(StandardCharsets.UTF_8).contains("\n\n"));
+        verifyNoInteractions(entityManager);
+        verify(costRepository).streamBetweenActivePoints();
+        verifyNoMoreInteractions(costRepository);
+    }
+}
@@ -3,28 +3,47 @@ package com.microservice.pointsalecost.testServices;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.microservice.pointsalecost.cache.CacheInvalidation;
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.NetworkSync;
+import com.microservice.pointsalecost.cache.RedisKeyLayout;
+import com.microservice.pointsalecost.cache.NegativeCache;
+import com.microservice.pointsalecost.cache.SingleFlight;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSalePageDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleRequestDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
 import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleUpdateDTO;
 import com.microservice.pointsalecost.exceptions.PointOfSaleNotFoundException;
 import com.microservice.pointsalecost.exceptions.RedisCacheMissException;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.ShortestPathCache;
 import com.microservice.pointsalecost.mappers.PointOfSaleMapper;
 import com.microservice.pointsalecost.models.PointOfSale;
 import com.microservice.pointsalecost.repositories.PointOfSaleRepository;
 import com.microservice.pointsalecost.services.Impl.PointOfSaleServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(MockitoExtension.class)
 public class PointOfSaleServiceImplTest {
@@ -38,15 +57,25 @@ public class PointOfSaleServiceImplTest {
     @Mock
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
     @Mock
     private HashOperations<String, Object, Object> hashOperations;
 
+    ActivePointIndex activePointIndex;
+
     PointOfSaleServiceImpl pointOfSaleService;
 
     @BeforeEach
     public void setUp() {
         when(redisTemplate.opsForHash()).thenReturn(hashOperations);
-        pointOfSaleService = new PointOfSaleServiceImpl(pointOfSaleRepository, pointOfSaleMapper, redisTemplate);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        activePointIndex = new ActivePointIndex();
+        NearCache nearCache = new NearCache(redisTemplate, new RedisKeyLayout(64), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), "invalidations", 1000);
+        NetworkSync networkSync = new NetworkSync(redisTemplate, nearCache, new CostGraphEngine(), activePointIndex, new ShortestPathCache(100, new SimpleMeterRegistry()), new SimpleMeterRegistry(), 1000);
+        pointOfSaleService = new PointOfSaleServiceImpl(pointOfSaleRepository, pointOfSaleMapper, nearCache, new NegativeCache(redisTemplate, Duration.ofSeconds(30)), activePointIndex, networkSync,
+                new SingleFlight(redisTemplate, false, Duration.ofSeconds(5), Duration.ofMillis(50)));
     }
 
     @Test
@@ -70,6 +99,54 @@ public class PointOfSaleServiceImplTest {
         assertEquals(2L, result.get(1).id());
     }
 
+    @Test
+    public void testGetPage_ReadsTheIndexAndLoadsRedisMisses() {
+        activePointIndex.load(List.of());
+        activePointIndex.activateAll(List.of(1L, 2L, 3L, 4L));
+        PointOfSale pointOfSale2 = new PointOfSale(2L, "POS2", true);
+        PointOfSale pointOfSale3 = new PointOfSale(3L, "POS3", true);
+
+        when(hashOperations.multiGet(anyString(), anyCollection())).thenAnswer(invocation -> {
+            List<Object> fields = new ArrayList<>(invocation.getArgument(1));
+            return fields.stream().map(field -> "2".equals(field) ? pointOfSale2 : null).toList();
+        });
+        when(pointOfSaleRepository.findAllById(List.of(3L))).thenReturn(List.of(pointOfSale3));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(any(PointOfSale.class)))
+                .thenAnswer(invocation -> new PointOfSaleResponseDTO(((PointOfSale) invocation.getArgument(0)).getId(), "POS", true));
+
+        PointOfSalePageDTO page = pointOfSaleService.getPage(1L, 2);
+
+        assertEquals(List.of(2L, 3L), page.pointsOfSale().stream().map(PointOfSaleResponseDTO::id).toList());
+        assertEquals(3L, page.nextAfter());
+        verify(hashOperations).putAll(eq("point_of_sale"), eq(Map.of("3", pointOfSale3)));
+        verify(pointOfSaleRepository, never()).findAll();
+    }
+
+    @Test
+    public void testGetPage_LastPageHasNoCursor() {
+        activePointIndex.load(List.of());
+        activePointIndex.activateAll(List.of(1L, 2L));
+        when(hashOperations.multiGet(anyString(), anyCollection())).thenReturn(List.of(new PointOfSale(2L, "POS2", true)));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(any(PointOfSale.class))).thenReturn(new PointOfSaleResponseDTO(2L, "POS2", true));
+
+        PointOfSalePageDTO page = pointOfSaleService.getPage(1L, 100);
+
+        assertEquals(1, page.pointsOfSale().size());
+        assertNull(page.nextAfter());
+    }
+
+    @Test
+    public void testGetPage_FallsBackToTheDatabaseBeforeTheIndexIsLoaded() {
+        PointOfSale pointOfSale = new PointOfSale(5L, "POS5", true);
+        when(pointOfSaleRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(0L, Limit.of(1))).thenReturn(List.of(pointOfSale));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale)).thenReturn(new PointOfSaleResponseDTO(5L, "POS5", true));
+
+        PointOfSalePageDTO page = pointOfSaleService.getPage(0L, 1);
+
+        assertEquals(5L, page.nextAfter());
+        verifyNoInteractions(hashOperations);
+    }
+
     @Test
     public void testFindById() {
         PointOfSale pointOfSale = new PointOfSale();
@@ -94,6 +171,18 @@ public class PointOfSaleServiceImplTest {
         assertThrows(PointOfSaleNotFoundException.class, () -> pointOfSaleService.findById(1L));
     }
 
+    @Test
+    public void testFindById_InactivePointIsMarked() {
+        PointOfSale inactive = new PointOfSale(3L, "GBA_2", false);
+        when(pointOfSaleRepository.findById(3L)).thenReturn(Optional.of(inactive));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(inactive)).thenReturn(new PointOfSaleResponseDTO(3L, "GBA_2", false));
+
+        pointOfSaleService.findById(3L);
+
+        verify(valueOperations).set(eq("point_of_sale:missing:3"), eq(inactive), any(Duration.class));
+        verify(hashOperations, never()).put(anyString(), anyString(), any());
+    }
+
     @Test
     public void testSave() {
         PointOfSaleRequestDTO requestDTO = new PointOfSaleRequestDTO("POS1");
@@ -109,7 +198,32 @@ public class PointOfSaleServiceImplTest {
 
         assertNotNull(result);
         assertEquals(1L, result.id());
+        assertTrue(activePointIndex.isActive(1L));
         verify(hashOperations, times(1)).put(anyString(), anyString(), any(PointOfSale.class));
+        verify(redisTemplate).delete("point_of_sale:missing:1");
+    }
+
+    @Test
+    public void testSaveAll() {
+        PointOfSaleRequestDTO first = new PointOfSaleRequestDTO("POS1");
+        PointOfSaleRequestDTO second = new PointOfSaleRequestDTO("POS2");
+        PointOfSale pointOfSale1 = new PointOfSale(1L, "POS1", false);
+        PointOfSale pointOfSale2 = new PointOfSale(2L, "POS2", false);
+
+        when(pointOfSaleMapper.toEntity(first)).thenReturn(pointOfSale1);
+        when(pointOfSaleMapper.toEntity(second)).thenReturn(pointOfSale2);
+        when(pointOfSaleRepository.saveAll(List.of(pointOfSale1, pointOfSale2))).thenReturn(List.of(pointOfSale1, pointOfSale2));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(any(PointOfSale.class)))
+                .thenAnswer(invocation -> new PointOfSaleResponseDTO(((PointOfSale) invocation.getArgument(0)).getId(), "POS", true));
+
+        List<PointOfSaleResponseDTO> result = pointOfSaleService.saveAll(List.of(first, second));
+
+        assertEquals(2, result.size());
+        assertTrue(pointOfSale1.isActive() && pointOfSale2.isActive());
+        assertTrue(activePointIndex.isActive(1L) && activePointIndex.isActive(2L));
+        verify(hashOperations, times(1)).putAll(eq("point_of_sale"), anyMap());
+        verify(hashOperations, never()).put(anyString(), anyString(), any());
+        verify(redisTemplate).delete(List.of("point_of_sale:missing:1", "point_of_sale:missing:2"));
     }
 
     @Test
@@ -138,11 +252,15 @@ public class PointOfSaleServiceImplTest {
 
         when(hashOperations.delete(anyString(), anyString())).thenReturn(1L);
         when(pointOfSaleRepository.findById(1L)).thenReturn(Optional.of(pointOfSale));
+        activePointIndex.activate(1L);
 
         pointOfSaleService.delete(1L);
 
         verify(pointOfSaleRepository, times(1)).save(pointOfSale);
         assertFalse(pointOfSale.isActive());
+        assertFalse(activePointIndex.isActive(1L));
+        verify(redisTemplate).convertAndSend(eq("invalidations"), argThat(message ->
+                message instanceof CacheInvalidation change && change.change() == CacheInvalidation.Change.POINTS_DEACTIVATED));
     }
 
     @Test
@@ -0,0 +1,145 @@
+package com.microservice.pointsalecost.testServices;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.microservice.pointsalecost.cache.NearCache;
+import com.microservice.pointsalecost.cache.RedisKeyLayout;
+import com.microservice.pointsalecost.dtos.CostDTO.CostMinimumDTO;
+import com.microservice.pointsalecost.dtos.PointOfSaleDTO.PointOfSaleResponseDTO;
+import com.microservice.pointsalecost.exceptions.InactivePointOfSaleException;
+import com.microservice.pointsalecost.graph.ActivePointIndex;
+import com.microservice.pointsalecost.graph.ComponentIndex;
+import com.microservice.pointsalecost.graph.ContractionHierarchyManager;
+import com.microservice.pointsalecost.graph.CostGraphEngine;
+import com.microservice.pointsalecost.graph.ShortestPathCache;
+import com.microservice.pointsalecost.mappers.CostMapper;
+import com.microservice.pointsalecost.mappers.PointOfSaleMapper;
+import com.microservice.pointsalecost.models.Cost;
+import com.microservice.pointsalecost.models.PointOfSale;
+import com.microservice.pointsalecost.services.CostService;
+import com.microservice.pointsalecost.services.Impl.ReactiveReadServiceImpl;
+import com.microservice.pointsalecost.services.PointOfSaleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveReadServiceImplTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+    @Mock
+    private ReactiveHashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private PointOfSaleService pointOfSaleService;
+
+    @Mock
+    private CostService costService;
+
+    @Mock
+    private PointOfSaleMapper pointOfSaleMapper;
+
+    @Mock
+    private CostMapper costMapper;
+
+    private CostGraphEngine costGraphEngine;
+
+    private ActivePointIndex activePointIndex;
+
+    private ReactiveReadServiceImpl reactiveReadService;
+
+    @BeforeEach
+    public void setUp() {
+        when(reactiveRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        costGraphEngine = new CostGraphEngine();
+        activePointIndex = new ActivePointIndex();
+        NearCache nearCache = new NearCache(redisTemplate, new RedisKeyLayout(64), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), "invalidations", 1000);
+        reactiveReadService = new ReactiveReadServiceImpl(reactiveRedisTemplate, nearCache, costGraphEngine, activePointIndex,
+                new ComponentIndex(costGraphEngine, activePointIndex), new ContractionHierarchyManager(costGraphEngine, activePointIndex, Runnable::run, false),
+                new ShortestPathCache(100, new SimpleMeterRegistry()), pointOfSaleService, costService, pointOfSaleMapper, costMapper, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void testFindPointOfSale_FromRedis() {
+        PointOfSale pointOfSale = new PointOfSale(1L, "CABA", true);
+        PointOfSaleResponseDTO responseDTO = new PointOfSaleResponseDTO(1L, "CABA", true);
+        when(hashOperations.get("point_of_sale", "1")).thenReturn(Mono.just(pointOfSale));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(pointOfSale)).thenReturn(responseDTO);
+
+        assertEquals(responseDTO, reactiveReadService.findPointOfSale(1L).block());
+        verifyNoInteractions(pointOfSaleService);
+    }
+
+    @Test
+    public void testFindPointOfSale_RedisMissFallsBackToService() {
+        PointOfSaleResponseDTO responseDTO = new PointOfSaleResponseDTO(1L, "CABA", true);
+        when(hashOperations.get("point_of_sale", "1")).thenReturn(Mono.empty());
+        when(pointOfSaleService.findById(1L)).thenReturn(responseDTO);
+
+        assertEquals(responseDTO, reactiveReadService.findPointOfSale(1L).block());
+    }
+
+    @Test
+    public void testStreamPointsOfSale_SkipsInactive() {
+        PointOfSale active = new PointOfSale(1L, "CABA", true);
+        PointOfSale inactive = new PointOfSale(2L, "GBA_1", false);
+        PointOfSaleResponseDTO responseDTO = new PointOfSaleResponseDTO(1L, "CABA", true);
+        when(hashOperations.scan("point_of_sale")).thenReturn(Flux.just(Map.entry("1", active), Map.entry("2", inactive)));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(active)).thenReturn(responseDTO);
+
+        assertEquals(List.of(responseDTO), reactiveReadService.streamPointsOfSale().collectList().block());
+    }
+
+    @Test
+    public void testMinimumCostPath_SearchesGraphAndReadsPointsInOneHmget() {
+        loadGraph();
+        PointOfSale first = new PointOfSale(1L, "CABA", true);
+        PointOfSale second = new PointOfSale(2L, "GBA_1", true);
+        PointOfSale third = new PointOfSale(3L, "GBA_2", true);
+        when(hashOperations.multiGet("point_of_sale", List.of("1", "2", "3"))).thenReturn(Mono.just(List.of(first, second, third)));
+        when(pointOfSaleMapper.toPointOfSaleResponseDTO(any(PointOfSale.class)))
+                .thenAnswer(invocation -> new PointOfSaleResponseDTO(((PointOfSale) invocation.getArgument(0)).getId(), "P", true));
+
+        CostMinimumDTO result = reactiveReadService.minimumCostPath(1L, 3L, null).block();
+        CostMinimumDTO reversed = reactiveReadService.minimumCostPath(3L, 1L, null).block();
+
+        assertNotNull(result);
+        assertEquals(3.0, result.totalCost());
+        assertEquals(List.of(1L, 2L, 3L), result.pointOfSaleResponse().stream().map(PointOfSaleResponseDTO::id).toList());
+        assertEquals(List.of(3L, 2L, 1L), reversed.pointOfSaleResponse().stream().map(PointOfSaleResponseDTO::id).toList());
+        verify(hashOperations, times(1)).multiGet(anyString(), anyList());
+    }
+
+    @Test
+    public void testMinimumCostPath_InactivePoint() {
+        loadGraph();
+
+        assertThrows(InactivePointOfSaleException.class, () -> reactiveReadService.minimumCostPath(1L, 9L, null).block());
+        verifyNoInteractions(hashOperations);
+    }
+
+    private void loadGraph() {
+        activePointIndex.load(List.of(new PointOfSale(1L, "CABA", true), new PointOfSale(2L, "GBA_1", true), new PointOfSale(3L, "GBA_2", true)));
+        costGraphEngine.load(List.of(new Cost(1L, 2L, 1d), new Cost(2L, 3L, 2d), new Cost(1L, 3L, 5d)));
+    }
+}
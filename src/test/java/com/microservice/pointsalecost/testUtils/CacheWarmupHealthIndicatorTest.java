@@ -0,0 +1,46 @@
+package com.microservice.pointsalecost.testUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microservice.pointsalecost.utils.CacheWarmupHealthIndicator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.concurrent.CompletableFuture;
+
+public class CacheWarmupHealthIndicatorTest {
+
+    private final CacheWarmupHealthIndicator indicator = new CacheWarmupHealthIndicator();
+
+    @Test
+    public void testHealth_OutOfServiceUntilEveryPartIsLoaded() {
+        CompletableFuture<Void> pointsOfSale = new CompletableFuture<>();
+        CompletableFuture<Void> costs = new CompletableFuture<>();
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        indicator.track("pointsOfSale", pointsOfSale);
+        indicator.track("costs", costs);
+        pointsOfSale.complete(null);
+
+        Health warming = indicator.health();
+        assertEquals(Status.OUT_OF_SERVICE, warming.getStatus());
+        assertEquals("ready", warming.getDetails().get("pointsOfSale"));
+        assertEquals("warming", warming.getDetails().get("costs"));
+
+        costs.complete(null);
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    public void testHealth_DownWhenAPartFails() {
+        indicator.track("pointsOfSale", CompletableFuture.completedFuture(null));
+        indicator.track("costs", CompletableFuture.failedFuture(new IllegalStateException("Redis unavailable")));
+
+        Health health = indicator.health();
+
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("failed: Redis unavailable", health.getDetails().get("costs"));
+    }
+}